@@ -0,0 +1,115 @@
+package com.example.SpringAppGB.build;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Шаг сборки, создающий сжатые gzip-копии статических ресурсов (файлы *.gz рядом с исходными).
+ * Класс лежит в отдельном каталоге исходников src/build/java и компилируется в target/build-classes,
+ * поэтому не попадает в jar приложения. Запускается плагином exec-maven-plugin на фазе process-classes
+ * для каталога target/classes/static.
+ * Во время работы приложения копии отдает {@link org.springframework.web.servlet.resource.EncodedResourceResolver},
+ * если клиент поддерживает gzip, поэтому ресурсы не сжимаются на каждый запрос.
+ * Копия не создается, если она не меньше исходного файла или уже создана из текущей версии файла.
+ */
+public final class StaticAssetCompressor {
+
+    private static final Logger log = LoggerFactory.getLogger(StaticAssetCompressor.class);
+
+    private static final Set<String> COMPRESSIBLE = Set.of("css", "js", "html", "svg", "json", "txt");
+    private static final long MIN_SIZE_BYTES = 256; // Меньшие файлы почти не сжимаются
+
+    private StaticAssetCompressor() {
+    }
+
+    /**
+     * Создает сжатые копии ресурсов в указанном каталоге и его подкаталогах.
+     *
+     * @param args путь к каталогу статических ресурсов
+     * @throws IOException если не удалось прочитать или записать файл
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: StaticAssetCompressor <static resources directory>");
+        }
+        Path root = Path.of(args[0]);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(root)) {
+            files = paths.filter(Files::isRegularFile).filter(StaticAssetCompressor::isCompressible).toList();
+        }
+        int written = 0;
+        for (Path file : files) {
+            if (compress(file)) {
+                written++;
+            }
+        }
+        log.info("Static assets: {} of {} files precompressed in {}", written, files.size(), root);
+    }
+
+    private static boolean isCompressible(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 && COMPRESSIBLE.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Сжимает файл в копию с расширением .gz.
+     *
+     * @param file исходный файл
+     * @return true, если копия записана
+     * @throws IOException если не удалось прочитать или записать файл
+     */
+    private static boolean compress(Path file) throws IOException {
+        Path target = file.resolveSibling(file.getFileName() + ".gz");
+        FileTime modified = Files.getLastModifiedTime(file);
+        if (Files.exists(target) && Files.getLastModifiedTime(target).compareTo(modified) >= 0) {
+            return false;
+        }
+        byte[] content = Files.readAllBytes(file);
+        if (content.length < MIN_SIZE_BYTES) {
+            Files.deleteIfExists(target);
+            return false;
+        }
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = new BestCompressionGzipOutputStream(Files.newOutputStream(temp))) {
+                out.write(content);
+            }
+            if (Files.size(temp) >= content.length) {
+                Files.deleteIfExists(target);
+                return false;
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Поток gzip с максимальной степенью сжатия: сжатие выполняется один раз при сборке.
+     */
+    private static class BestCompressionGzipOutputStream extends GZIPOutputStream {
+
+        BestCompressionGzipOutputStream(OutputStream out) throws IOException {
+            super(out);
+            def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+    }
+}
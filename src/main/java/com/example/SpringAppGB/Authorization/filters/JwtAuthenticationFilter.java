@@ -2,7 +2,10 @@ package com.example.SpringAppGB.Authorization.filters;
 
 import com.auth0.jwt.exceptions.JWTVerificationException;
 
+import com.example.SpringAppGB.Authorization.model.JwtPrincipal;
 import com.example.SpringAppGB.Authorization.services.JwtTokenProvider;
+import com.example.SpringAppGB.Authorization.services.TokenRevocationList;
+import com.example.SpringAppGB.Authorization.services.VerifiedTokenCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,12 +27,17 @@ import java.util.stream.Collectors;
  * Фильтр для аутентификации пользователей с использованием JWT токенов.
  * Этот фильтр извлекает JWT токен из заголовков запроса или из cookies, проверяет его валидность,
  * и если токен действителен, устанавливает аутентификацию в контексте безопасности.
+ * Результаты проверки токенов кэшируются в {@link VerifiedTokenCache}, поэтому повторные запросы
+ * с тем же токеном не требуют повторной проверки подписи. Отзыв токена проверяется на каждом запросе
+ * по {@link TokenRevocationList}, в том числе для токенов из кэша.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtTokenProvider jwtTokenProvider;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationList tokenRevocationList;
 
     /**
      * Метод, выполняющий фильтрацию запросов, проверяет JWT токен в запросе и устанавливает аутентификацию.
@@ -49,11 +57,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String path = request.getServletPath();
         if ("/login".equals(path) ||
                 "/auth/login".equals(path) ||
+                "/auth/refresh".equals(path) ||
+                "/.well-known/jwks.json".equals(path) ||
                 path.startsWith("/h2-console") ||
                 path.startsWith("/actuator/metrics") ||
                 path.startsWith("/actuator/health") ||
-                path.startsWith("/actuator/prometheus") ||
-                path.startsWith("/css")) {
+                path.startsWith("/actuator/prometheus")) {
             filterChain.doFilter(request, response);
             return;
         }
@@ -74,17 +83,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (token == null) {
             throw new BadCredentialsException("Неверный токен");
         }
-        if (!jwtTokenProvider.validateToken(token)) {
-            throw new JWTVerificationException("Invalid or expired token");
+        JwtPrincipal principal = verifiedTokenCache.get(token, jwtTokenProvider::verifyAndExtract);
+        if (tokenRevocationList.isRevoked(principal.tokenId())) {
+            throw new JWTVerificationException("Token has been revoked");
         }
 
-        username = jwtTokenProvider.getUsernameFromToken(token);
+        username = principal.username();
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // В качестве principal сохраняем данные из токена, чтобы контроллеры не разбирали токен повторно
             UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                    username,
+                    principal,
                     null,
-                    jwtTokenProvider
-                            .getRolesFromToken(token)
+                    principal
+                            .roles()
                             .stream()
                             .map(SimpleGrantedAuthority::new)
                             .collect(Collectors.toList()));
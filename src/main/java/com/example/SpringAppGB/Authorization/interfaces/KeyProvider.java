@@ -1,13 +1,11 @@
 package com.example.SpringAppGB.Authorization.interfaces;
 
 import java.io.IOException;
+import java.security.GeneralSecurityException;
 import java.security.KeyPair;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.PublicKey;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
-import java.security.spec.InvalidKeySpecException;
 
 /**
  * Интерфейс для работы с ключами шифрования, включая получение, генерацию и запись ключей.
@@ -20,21 +18,19 @@ public interface KeyProvider {
      * Получает приватный ключ.
      *
      * @return Приватный ключ
-     * @throws NoSuchAlgorithmException если алгоритм для генерации ключа не найден
-     * @throws InvalidKeySpecException  если спецификация ключа недействительна
+     * @throws GeneralSecurityException если ключ не удалось загрузить или сгенерировать
      * @throws IOException              если ошибка ввода/вывода
      */
-    PrivateKey getPrivateKey() throws NoSuchAlgorithmException, InvalidKeySpecException, IOException;
+    PrivateKey getPrivateKey() throws GeneralSecurityException, IOException;
 
     /**
      * Получает публичный ключ.
      *
      * @return Публичный ключ
-     * @throws NoSuchAlgorithmException если алгоритм для генерации ключа не найден
-     * @throws InvalidKeySpecException  если спецификация ключа недействительна
+     * @throws GeneralSecurityException если ключ не удалось загрузить или сгенерировать
      * @throws IOException              если ошибка ввода/вывода
      */
-    PublicKey getPublicKey() throws NoSuchAlgorithmException, InvalidKeySpecException, IOException;
+    PublicKey getPublicKey() throws GeneralSecurityException, IOException;
 
     /**
      * Генерирует пару ключей (приватный и публичный).
@@ -50,7 +46,7 @@ public interface KeyProvider {
      * @param privateKey Приватный ключ для сохранения
      * @throws IOException если ошибка записи в файл
      */
-    void savePrivateKeyToFile(RSAPrivateKey privateKey) throws IOException;  // Запись приватного ключа
+    void savePrivateKeyToFile(PrivateKey privateKey) throws IOException;  // Запись приватного ключа
 
     /**
      * Сохраняет публичный ключ в файл.
@@ -58,5 +54,5 @@ public interface KeyProvider {
      * @param publicKey Публичный ключ для сохранения
      * @throws IOException если ошибка записи в файл
      */
-    void savePublicKeyToFile(RSAPublicKey publicKey) throws IOException;     // Запись публичного ключа
+    void savePublicKeyToFile(PublicKey publicKey) throws IOException;     // Запись публичного ключа
 }
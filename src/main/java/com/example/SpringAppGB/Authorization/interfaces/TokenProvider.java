@@ -1,13 +1,13 @@
 package com.example.SpringAppGB.Authorization.interfaces;
 
+import com.example.SpringAppGB.Authorization.model.JwtPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 
-import java.util.List;
-
 
 /**
  * Интерфейс для работы с токенами, который включает методы для их валидации, извлечения информации
  * о пользователе и ролях, а также для генерации JWT токенов.
+ * Данные пользователя извлекаются только из проверенного токена через {@link #verifyAndExtract(String)}.
  */
 public interface TokenProvider {
 
@@ -20,20 +20,12 @@ public interface TokenProvider {
     boolean validateToken(String token);
 
     /**
-     * Извлекает имя пользователя из токена.
-     *
-     * @param token JWT токен, из которого нужно извлечь имя пользователя
-     * @return Имя пользователя, содержащееся в токене
-     */
-    String getUsernameFromToken(String token);
-
-    /**
-     * Извлекает список ролей из токена.
+     * Проверяет токен и за один проход извлекает из него данные пользователя.
      *
-     * @param token JWT токен, из которого нужно извлечь роли
-     * @return Список ролей пользователя, содержащихся в токене
+     * @param token JWT токен для проверки
+     * @return Данные пользователя, содержащиеся в токене
      */
-    List<String> getRolesFromToken(String token);
+    JwtPrincipal verifyAndExtract(String token);
 
     /**
      * Генерирует токен для указанного пользователя.
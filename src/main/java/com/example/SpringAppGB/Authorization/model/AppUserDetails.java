@@ -0,0 +1,39 @@
+package com.example.SpringAppGB.Authorization.model;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Данные пользователя для Spring Security, дополненные идентификатором пользователя.
+ * Идентификатор записывается в JWT токен, чтобы текущего пользователя можно было получить
+ * по первичному ключу без повторного разбора токена и поиска по имени.
+ */
+public class AppUserDetails extends User {
+
+    private final Long id;
+
+    /**
+     * Создает данные пользователя.
+     *
+     * @param id          идентификатор пользователя
+     * @param username    имя пользователя
+     * @param password    хэш пароля
+     * @param authorities роли пользователя
+     */
+    public AppUserDetails(Long id, String username, String password,
+                          Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+
+    /**
+     * Возвращает идентификатор пользователя.
+     *
+     * @return идентификатор пользователя
+     */
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.SpringAppGB.Authorization.model;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Неизменяемые данные пользователя, извлеченные из проверенного JWT токена.
+ * Хранится в кэше проверенных токенов и устанавливается как principal аутентификации в SecurityContext.
+ *
+ * @param username  имя пользователя (поле "iss" токена)
+ * @param roles     список ролей пользователя
+ * @param expiresAt момент истечения срока действия токена
+ * @param tokenId   идентификатор токена (поле "jti"), по которому токен может быть отозван
+ * @param userId    идентификатор пользователя (поле "uid") или null для токенов без этого поля
+ */
+public record JwtPrincipal(String username, List<String> roles, Instant expiresAt, String tokenId, Long userId)
+        implements Principal {
+
+    public JwtPrincipal {
+        roles = roles != null ? List.copyOf(roles) : List.of();
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
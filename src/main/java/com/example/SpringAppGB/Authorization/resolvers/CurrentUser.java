@@ -0,0 +1,18 @@
+package com.example.SpringAppGB.Authorization.resolvers;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Отмечает параметр метода контроллера, в который передается текущий аутентифицированный пользователь.
+ * Поддерживаются параметры типа {@link com.example.SpringAppGB.model.DTO.UserSummary}
+ * и {@link com.example.SpringAppGB.Authorization.model.JwtPrincipal}.
+ *
+ * @see CurrentUserArgumentResolver
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+}
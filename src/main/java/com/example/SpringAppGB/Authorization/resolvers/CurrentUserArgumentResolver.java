@@ -0,0 +1,63 @@
+package com.example.SpringAppGB.Authorization.resolvers;
+
+import com.example.SpringAppGB.Authorization.model.JwtPrincipal;
+import com.example.SpringAppGB.model.DTO.UserSummary;
+import com.example.SpringAppGB.services.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Передает в параметры контроллеров, отмеченные {@link CurrentUser}, текущего пользователя.
+ * Пользователь берется из {@link JwtPrincipal}, который {@link com.example.SpringAppGB.Authorization.filters.JwtAuthenticationFilter}
+ * сохраняет в SecurityContext, поэтому токен повторно не разбирается. Краткие данные пользователя
+ * ({@link UserSummary}) берутся по идентификатору из токена через кэш {@link UserService} не более одного раза
+ * за запрос и сохраняются в атрибутах запроса.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private static final String CURRENT_USER_ATTRIBUTE = CurrentUserArgumentResolver.class.getName() + ".USER";
+
+    private final UserService userService;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && (UserSummary.class.equals(parameter.getParameterType())
+                || JwtPrincipal.class.equals(parameter.getParameterType()));
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof JwtPrincipal principal)) {
+            throw new UsernameNotFoundException("User is not authenticated");
+        }
+        if (JwtPrincipal.class.equals(parameter.getParameterType())) {
+            return principal;
+        }
+        UserSummary user = (UserSummary) webRequest.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (user == null) {
+            // Токены, выданные до появления поля "uid", не содержат идентификатора пользователя
+            user = principal.userId() != null
+                    ? userService.getUserSummaryById(principal.userId())
+                    : userService.getUserSummaryByUserName(principal.username());
+            if (user == null) {
+                throw new UsernameNotFoundException("");
+            }
+            webRequest.setAttribute(CURRENT_USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+}
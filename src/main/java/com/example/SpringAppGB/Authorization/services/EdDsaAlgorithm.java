@@ -0,0 +1,100 @@
+package com.example.SpringAppGB.Authorization.services;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.SignatureGenerationException;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Base64;
+
+/**
+ * Алгоритм подписи EdDSA (Ed25519) для java-jwt.
+ * Библиотека java-jwt не поддерживает EdDSA, поэтому подпись выполняется
+ * стандартным провайдером JDK через {@link Signature}.
+ */
+public class EdDsaAlgorithm extends Algorithm {
+
+    private static final String SIGNATURE_ALGORITHM = "Ed25519";
+
+    private final PublicKey publicKey;
+    private final PrivateKey privateKey;
+
+    /**
+     * Создает алгоритм для пары ключей Ed25519.
+     *
+     * @param publicKey  публичный ключ для проверки подписи
+     * @param privateKey приватный ключ для подписи или null
+     */
+    public EdDsaAlgorithm(PublicKey publicKey, PrivateKey privateKey) {
+        super("EdDSA", SIGNATURE_ALGORITHM);
+        this.publicKey = publicKey;
+        this.privateKey = privateKey;
+    }
+
+    /**
+     * Проверяет подпись токена публичным ключом.
+     *
+     * @param jwt разобранный токен
+     * @throws SignatureVerificationException если подпись недействительна
+     */
+    @Override
+    public void verify(DecodedJWT jwt) throws SignatureVerificationException {
+        try {
+            byte[] signatureBytes = Base64.getUrlDecoder().decode(jwt.getSignature());
+            Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
+            signature.initVerify(publicKey);
+            signature.update(jwt.getHeader().getBytes(StandardCharsets.UTF_8));
+            signature.update((byte) '.');
+            signature.update(jwt.getPayload().getBytes(StandardCharsets.UTF_8));
+            if (!signature.verify(signatureBytes)) {
+                throw new SignatureVerificationException(this);
+            }
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new SignatureVerificationException(this, e);
+        }
+    }
+
+    /**
+     * Подписывает заголовок и полезную нагрузку токена.
+     *
+     * @param headerBytes  закодированный заголовок
+     * @param payloadBytes закодированная полезная нагрузка
+     * @return подпись
+     * @throws SignatureGenerationException если подпись не удалось сформировать
+     */
+    @Override
+    public byte[] sign(byte[] headerBytes, byte[] payloadBytes) throws SignatureGenerationException {
+        byte[] contentBytes = new byte[headerBytes.length + 1 + payloadBytes.length];
+        System.arraycopy(headerBytes, 0, contentBytes, 0, headerBytes.length);
+        contentBytes[headerBytes.length] = (byte) '.';
+        System.arraycopy(payloadBytes, 0, contentBytes, headerBytes.length + 1, payloadBytes.length);
+        return sign(contentBytes);
+    }
+
+    /**
+     * Подписывает данные приватным ключом.
+     *
+     * @param contentBytes подписываемые данные
+     * @return подпись
+     * @throws SignatureGenerationException если приватный ключ не задан или подпись не удалась
+     */
+    @Override
+    public byte[] sign(byte[] contentBytes) throws SignatureGenerationException {
+        if (privateKey == null) {
+            throw new SignatureGenerationException(this, new IllegalStateException("The private key is null"));
+        }
+        try {
+            Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
+            signature.initSign(privateKey);
+            signature.update(contentBytes);
+            return signature.sign();
+        } catch (GeneralSecurityException e) {
+            throw new SignatureGenerationException(this, e);
+        }
+    }
+}
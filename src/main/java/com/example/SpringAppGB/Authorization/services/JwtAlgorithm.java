@@ -0,0 +1,194 @@
+package com.example.SpringAppGB.Authorization.services;
+
+import com.auth0.jwt.algorithms.Algorithm;
+
+import java.math.BigInteger;
+import java.security.*;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Поддерживаемые алгоритмы подписи JWT токенов.
+ * Задается параметром jwt.algorithm и определяет тип генерируемых и загружаемых ключей.
+ */
+public enum JwtAlgorithm {
+
+    /**
+     * RSASSA-PKCS1-v1_5 с SHA-256 и ключом RSA 2048 бит.
+     */
+    RS256("RSA") {
+        @Override
+        public KeyPair generateKeyPair() throws GeneralSecurityException {
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+            keyPairGenerator.initialize(2048);
+            return keyPairGenerator.generateKeyPair();
+        }
+
+        @Override
+        public Algorithm algorithm(PublicKey publicKey, PrivateKey privateKey) {
+            return Algorithm.RSA256((RSAPublicKey) publicKey, (RSAPrivateKey) privateKey);
+        }
+
+        @Override
+        protected void fillJwk(Map<String, String> jwk, PublicKey publicKey) {
+            RSAPublicKey rsaPublicKey = (RSAPublicKey) publicKey;
+            jwk.put("kty", "RSA");
+            jwk.put("n", base64Url(unsignedBytes(rsaPublicKey.getModulus(), 0)));
+            jwk.put("e", base64Url(unsignedBytes(rsaPublicKey.getPublicExponent(), 0)));
+        }
+    },
+
+    /**
+     * ECDSA на кривой P-256 с SHA-256.
+     */
+    ES256("EC") {
+        @Override
+        public KeyPair generateKeyPair() throws GeneralSecurityException {
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+            keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+            return keyPairGenerator.generateKeyPair();
+        }
+
+        @Override
+        public Algorithm algorithm(PublicKey publicKey, PrivateKey privateKey) {
+            return Algorithm.ECDSA256((ECPublicKey) publicKey, (ECPrivateKey) privateKey);
+        }
+
+        @Override
+        protected void fillJwk(Map<String, String> jwk, PublicKey publicKey) {
+            ECPublicKey ecPublicKey = (ECPublicKey) publicKey;
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", base64Url(unsignedBytes(ecPublicKey.getW().getAffineX(), 32)));
+            jwk.put("y", base64Url(unsignedBytes(ecPublicKey.getW().getAffineY(), 32)));
+        }
+    },
+
+    /**
+     * EdDSA на кривой Ed25519.
+     */
+    EdDSA("Ed25519") {
+        @Override
+        public KeyPair generateKeyPair() throws GeneralSecurityException {
+            return KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        }
+
+        @Override
+        public Algorithm algorithm(PublicKey publicKey, PrivateKey privateKey) {
+            return new EdDsaAlgorithm(publicKey, privateKey);
+        }
+
+        @Override
+        protected void fillJwk(Map<String, String> jwk, PublicKey publicKey) {
+            // X.509-кодировка ключа Ed25519 заканчивается 32 байтами самого ключа
+            byte[] encoded = publicKey.getEncoded();
+            jwk.put("kty", "OKP");
+            jwk.put("crv", "Ed25519");
+            jwk.put("x", base64Url(Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length)));
+        }
+    };
+
+    private final String keyAlgorithm;
+
+    JwtAlgorithm(String keyAlgorithm) {
+        this.keyAlgorithm = keyAlgorithm;
+    }
+
+    /**
+     * Возвращает имя алгоритма ключа для {@link KeyFactory}.
+     *
+     * @return имя алгоритма ключа
+     */
+    public String getKeyAlgorithm() {
+        return keyAlgorithm;
+    }
+
+    /**
+     * Генерирует новую пару ключей для алгоритма.
+     *
+     * @return пара ключей
+     * @throws GeneralSecurityException если алгоритм не поддерживается
+     */
+    public abstract KeyPair generateKeyPair() throws GeneralSecurityException;
+
+    /**
+     * Создает алгоритм подписи java-jwt для пары ключей.
+     * Приватный ключ может быть null, если алгоритм используется только для проверки.
+     *
+     * @param publicKey  публичный ключ
+     * @param privateKey приватный ключ или null
+     * @return алгоритм подписи
+     */
+    public abstract Algorithm algorithm(PublicKey publicKey, PrivateKey privateKey);
+
+    /**
+     * Заполняет параметры публичного ключа в формате JWK.
+     *
+     * @param jwk       заполняемое описание ключа
+     * @param publicKey публичный ключ
+     */
+    protected abstract void fillJwk(Map<String, String> jwk, PublicKey publicKey);
+
+    /**
+     * Описывает публичный ключ в формате JWK.
+     *
+     * @param kid       идентификатор ключа
+     * @param publicKey публичный ключ
+     * @return описание ключа
+     */
+    public Map<String, String> toJwk(String kid, PublicKey publicKey) {
+        Map<String, String> jwk = new LinkedHashMap<>();
+        fillJwk(jwk, publicKey);
+        jwk.put("use", "sig");
+        jwk.put("alg", name());
+        jwk.put("kid", kid);
+        return jwk;
+    }
+
+    /**
+     * Определяет алгоритм подписи по типу ключа.
+     *
+     * @param key ключ
+     * @return алгоритм подписи
+     * @throws IllegalArgumentException если тип ключа не поддерживается
+     */
+    public static JwtAlgorithm forKey(Key key) {
+        return switch (key.getAlgorithm()) {
+            case "RSA" -> RS256;
+            case "EC" -> ES256;
+            case "EdDSA", "Ed25519" -> EdDSA;
+            default -> throw new IllegalArgumentException("Unsupported key algorithm: " + key.getAlgorithm());
+        };
+    }
+
+    private static String base64Url(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Возвращает байты числа без знакового нулевого байта, дополняя их нулями слева до нужной длины.
+     *
+     * @param value  число
+     * @param length минимальная длина результата
+     * @return беззнаковое представление числа
+     */
+    private static byte[] unsignedBytes(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (bytes.length >= length) {
+            return bytes;
+        }
+        byte[] padded = new byte[length];
+        System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+        return padded;
+    }
+}
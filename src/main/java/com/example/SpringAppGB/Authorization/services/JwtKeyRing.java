@@ -0,0 +1,292 @@
+package com.example.SpringAppGB.Authorization.services;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Набор ключей для подписи и проверки JWT токенов.
+ * Токены подписываются текущим приватным ключом, а в заголовок "kid" записывается идентификатор ключа.
+ * Для каждого действующего публичного ключа из директории ключей заранее создается потокобезопасный
+ * верификатор с алгоритмом, соответствующим типу ключа. Директория ключей и директория хранилища PKCS#12
+ * (если оно задано) отслеживаются, и при появлении, изменении или удалении ключей набор перестраивается
+ * без перезапуска приложения.
+ * Первичная загрузка (и генерация ключей при первом запуске) выполняется в отдельном потоке
+ * параллельно с созданием остальных бинов; обращения к ключам дожидаются ее завершения.
+ * Длительность загрузки публикуется в метрике "jwt.keys.bootstrap".
+ */
+@Component
+@Slf4j
+public class JwtKeyRing {
+
+    private static final String PUBLIC_KEY_HEADER = "-----BEGIN PUBLIC KEY-----";
+    private static final long RELOAD_DELAY_MS = 200; // Пауза, чтобы файлы ключей успели записаться целиком
+
+    private final JwtKeyProvider jwtKeyProvider;
+    private final Timer bootstrapTimer;
+    private final CompletableFuture<Void> bootstrap;
+
+    @Value("${jwt.keys.watch:true}")
+    private boolean watchEnabled;
+
+    private volatile SigningKey signingKey;
+    private volatile Map<String, JWTVerifier> verifiers = Map.of();
+    private volatile Map<String, PublicKey> publicKeys = Map.of();
+
+    private volatile WatchService watchService;
+    private Thread watchThread;
+
+    /**
+     * Текущий ключ подписи.
+     *
+     * @param kid       идентификатор ключа
+     * @param algorithm алгоритм подписи с приватным ключом
+     */
+    public record SigningKey(String kid, Algorithm algorithm) {
+    }
+
+    /**
+     * Создает набор ключей и запускает загрузку ключей в отдельном потоке.
+     *
+     * @param jwtKeyProvider поставщик ключей
+     * @param meterRegistry  реестр метрик приложения
+     */
+    public JwtKeyRing(JwtKeyProvider jwtKeyProvider, MeterRegistry meterRegistry) {
+        this.jwtKeyProvider = jwtKeyProvider;
+        this.bootstrapTimer = Timer.builder("jwt.keys.bootstrap")
+                .description("Time to load or generate JWT signing keys at startup")
+                .register(meterRegistry);
+        this.bootstrap = CompletableFuture.runAsync(this::bootstrap, task -> {
+            Thread thread = new Thread(task, "jwt-key-bootstrap");
+            thread.setDaemon(true);
+            thread.start();
+        });
+    }
+
+    /**
+     * Первичная загрузка ключей и запуск отслеживания директории ключей.
+     */
+    private void bootstrap() {
+        long start = System.nanoTime();
+        load(true);
+        long elapsed = System.nanoTime() - start;
+        bootstrapTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("JWT key bootstrap took {} ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        try {
+            startWatching();
+        } catch (IOException e) {
+            log.error("Failed to watch JWT key directories, key rotation requires restart", e);
+        }
+    }
+
+    /**
+     * Дожидается первичной загрузки ключей к концу старта контекста,
+     * чтобы ошибка загрузки ключей останавливала запуск приложения.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void awaitBootstrap() {
+        try {
+            bootstrap.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Возвращает текущий ключ подписи.
+     *
+     * @return ключ подписи с идентификатором
+     */
+    public SigningKey getSigningKey() {
+        awaitBootstrap();
+        return signingKey;
+    }
+
+    /**
+     * Возвращает верификатор для ключа с указанным идентификатором.
+     * Токены без заголовка "kid" проверяются текущим ключом.
+     *
+     * @param kid идентификатор ключа из заголовка токена
+     * @return верификатор токенов
+     * @throws JWTVerificationException если ключ с таким идентификатором не найден
+     */
+    public JWTVerifier getVerifier(String kid) throws JWTVerificationException {
+        awaitBootstrap();
+        JWTVerifier verifier = verifiers.get(kid != null ? kid : signingKey.kid());
+        if (verifier == null) {
+            throw new JWTVerificationException("Unknown key id: " + kid);
+        }
+        return verifier;
+    }
+
+    /**
+     * Возвращает действующие публичные ключи в формате JWKS.
+     *
+     * @return описание ключей в виде {"keys": [...]}
+     */
+    public Map<String, Object> getJwks() {
+        awaitBootstrap();
+        List<Map<String, String>> keys = new ArrayList<>();
+        publicKeys.forEach((kid, publicKey) -> keys.add(JwtAlgorithm.forKey(publicKey).toJwk(kid, publicKey)));
+        return Map.of("keys", keys);
+    }
+
+    /**
+     * Перечитывает ключи из директории и атомарно заменяет текущий набор.
+     * При ошибке чтения, при отсутствии файлов ключей (например, во время их перемещения), а также если
+     * приватный ключ не соответствует публичному (файлы ротации записаны не полностью), сохраняется предыдущий
+     * набор ключей; новый набор загрузится при следующем изменении файлов. Новые ключи здесь не генерируются.
+     */
+    public void reload() {
+        load(false);
+    }
+
+    /**
+     * Загружает ключи и атомарно заменяет текущий набор.
+     *
+     * @param bootstrap true при первичной загрузке, когда при отсутствии ключей генерируется новая пара
+     */
+    private synchronized void load(boolean bootstrap) {
+        try {
+            JwtAlgorithm algorithm = jwtKeyProvider.getAlgorithm();
+            KeyPair keyPair = bootstrap ? jwtKeyProvider.loadOrGenerateKeyPair() : jwtKeyProvider.loadKeyPair();
+            PrivateKey privateKey = keyPair.getPrivate();
+            PublicKey publicKey = keyPair.getPublic();
+            if (JwtAlgorithm.forKey(publicKey) != algorithm) {
+                throw new IllegalStateException("Public key type " + publicKey.getAlgorithm()
+                        + " does not match jwt.algorithm " + algorithm);
+            }
+            String currentKid = keyId(publicKey);
+
+            Map<String, PublicKey> keys = new LinkedHashMap<>();
+            keys.put(currentKid, publicKey);
+            Path currentPublicKeyPath = jwtKeyProvider.getPublicKeyPath();
+            try (Stream<Path> files = Files.list(jwtKeyProvider.getKeyDirectory())) {
+                for (Path file : files.filter(path -> path.toString().endsWith(".pem")).toList()) {
+                    if (!file.toAbsolutePath().equals(currentPublicKeyPath) && isPublicKeyFile(file)) {
+                        PublicKey key = jwtKeyProvider.readPublicKey(file);
+                        keys.putIfAbsent(keyId(key), key);
+                    }
+                }
+            }
+
+            Map<String, JWTVerifier> newVerifiers = new HashMap<>();
+            keys.forEach((kid, key) ->
+                    newVerifiers.put(kid, JWT.require(JwtAlgorithm.forKey(key).algorithm(key, null)).build()));
+
+            this.publicKeys = Collections.unmodifiableMap(keys);
+            this.verifiers = Map.copyOf(newVerifiers);
+            this.signingKey = new SigningKey(currentKid, algorithm.algorithm(publicKey, privateKey));
+            log.info("JWT key ring loaded: algorithm={}, signing kid={}, active keys={}",
+                    algorithm, currentKid, keys.keySet());
+        } catch (IOException | GeneralSecurityException | IllegalArgumentException | IllegalStateException e) {
+            if (signingKey == null) {
+                throw new IllegalStateException("Failed to load JWT keys: " + e.getMessage(), e);
+            }
+            log.error("Failed to reload JWT keys, keeping previous key ring", e);
+        }
+    }
+
+    /**
+     * Запускает отслеживание директории ключей и директории хранилища PKCS#12, если оно задано.
+     *
+     * @throws IOException если не удалось зарегистрировать директорию
+     */
+    private void startWatching() throws IOException {
+        if (!watchEnabled) {
+            return;
+        }
+        Set<Path> directories = new LinkedHashSet<>();
+        directories.add(jwtKeyProvider.getKeyDirectory());
+        jwtKeyProvider.getKeyStorePath().ifPresent(path -> directories.add(path.getParent()));
+        watchService = FileSystems.getDefault().newWatchService();
+        for (Path directory : directories) {
+            directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        }
+        log.info("Watching JWT key directories {}", directories);
+        watchThread = new Thread(this::watchKeyDirectory, "jwt-key-watcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    /**
+     * Останавливает отслеживание директории ключей.
+     *
+     * @throws IOException если не удалось закрыть WatchService
+     */
+    @PreDestroy
+    public void stopWatching() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    /**
+     * Цикл отслеживания изменений в директориях ключей.
+     */
+    private void watchKeyDirectory() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Thread.sleep(RELOAD_DELAY_MS);
+                key.pollEvents();
+                reload();
+                if (!key.reset()) {
+                    log.warn("JWT key directory {} is no longer accessible, stop watching it", key.watchable());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Приложение останавливается
+        }
+    }
+
+    /**
+     * Проверяет, что PEM-файл содержит публичный ключ.
+     *
+     * @param file путь к файлу
+     * @return true, если файл содержит публичный ключ
+     * @throws IOException если файл недоступен
+     */
+    private boolean isPublicKeyFile(Path file) throws IOException {
+        return Files.isRegularFile(file) && Files.readString(file).startsWith(PUBLIC_KEY_HEADER);
+    }
+
+    /**
+     * Вычисляет идентификатор ключа как отпечаток SHA-256 от DER-кодировки публичного ключа.
+     *
+     * @param publicKey публичный ключ
+     * @return идентификатор ключа
+     * @throws GeneralSecurityException если SHA-256 не поддерживается
+     */
+    private static String keyId(PublicKey publicKey) throws GeneralSecurityException {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(publicKey.getEncoded());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 16);
+    }
+}
@@ -1,12 +1,13 @@
 package com.example.SpringAppGB.Authorization.services;
 
 import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.exceptions.SignatureVerificationException;
 import com.auth0.jwt.exceptions.TokenExpiredException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.example.SpringAppGB.Authorization.interfaces.TokenProvider;
+import com.example.SpringAppGB.Authorization.model.AppUserDetails;
+import com.example.SpringAppGB.Authorization.model.JwtPrincipal;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,50 +15,37 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
-import com.auth0.jwt.JWTVerifier;
-import java.io.IOException;
-import java.security.NoSuchAlgorithmException;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
-import java.security.spec.InvalidKeySpecException;
 import java.time.Duration;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Класс JwtTokenProvider предоставляет функциональность для работы с JWT (JSON Web Tokens) в контексте авторизации.
  * Он генерирует, валидирует и извлекает информацию из токенов, используя RSA ключи для подписания и верификации.
+ * Ключи и верификаторы предоставляются {@link JwtKeyRing}: токен подписывается текущим ключом,
+ * а проверяется ключом, указанным в заголовке "kid".
  */
 @Component
 public class JwtTokenProvider implements TokenProvider {
 
-    private final RSAPrivateKey privateKey; // Секретный ключ для подписи
-    private final RSAPublicKey publicKey;
+    private final JwtKeyRing jwtKeyRing; // Ключи подписи и верификаторы токенов
 
     @Value("${jwt.lifetime}")
     private Duration JWT_EXPIRATION_MS; // Время жизни токена
 
     /**
-     * Конструктор для инициализации JwtTokenProvider с использованием ключей, предоставляемых JwtKeyProvider.
+     * Конструктор для инициализации JwtTokenProvider с использованием набора ключей JwtKeyRing.
      *
-     * @param jwtKeyProvider Поставщик RSA ключей.
-     * @throws NoSuchAlgorithmException Если возникает ошибка при создании алгоритма RSA.
-     * @throws InvalidKeySpecException Если возникает ошибка при создании ключа.
-     * @throws IOException Если возникает ошибка при чтении ключей.
+     * @param jwtKeyRing Набор ключей для подписи и проверки токенов.
      */
     @Autowired
-    public JwtTokenProvider(JwtKeyProvider jwtKeyProvider) throws NoSuchAlgorithmException, InvalidKeySpecException, IOException {
-        try {
-            this.privateKey = jwtKeyProvider.getPrivateKey();
-            this.publicKey = jwtKeyProvider.getPublicKey();
-        } catch (NoSuchAlgorithmException | InvalidKeySpecException | IOException e) {
-            throw new RuntimeException("Failed to initialize JwtTokenProvider: " + e.getMessage(), e);
-        }
+    public JwtTokenProvider(JwtKeyRing jwtKeyRing) {
+        this.jwtKeyRing = jwtKeyRing;
     }
 
     /**
      * Генерирует JWT токен для указанного пользователя.
-     * Токен включает информацию о ролях пользователя и сроке действия.
+     * Токен включает информацию о ролях пользователя, сроке действия и уникальный идентификатор "jti",
+     * по которому токен может быть отозван. Для {@link AppUserDetails} в поле "uid" записывается идентификатор пользователя.
      *
      * @param userDetails Детали пользователя, для которого генерируется токен.
      * @return Строка, представляющая собой сгенерированный JWT токен.
@@ -69,14 +57,20 @@ public class JwtTokenProvider implements TokenProvider {
                 map(GrantedAuthority::getAuthority).
                 toList();
         claims.put("roles", rolesList);
+        if (userDetails instanceof AppUserDetails appUserDetails) {
+            claims.put("uid", appUserDetails.getId());
+        }
         Date issuedDate = new Date();
         Date expiredDate = new Date(issuedDate.getTime() + JWT_EXPIRATION_MS.toMillis());
+        JwtKeyRing.SigningKey signingKey = jwtKeyRing.getSigningKey();
         return JWT.create()
+                .withKeyId(signingKey.kid())
+                .withJWTId(UUID.randomUUID().toString())
                 .withPayload(claims)
                 .withIssuer(userDetails.getUsername())
                 .withIssuedAt(issuedDate)
                 .withExpiresAt(expiredDate)
-                .sign(Algorithm.RSA256(publicKey, privateKey));
+                .sign(signingKey.algorithm());
     }
 
     /**
@@ -88,60 +82,41 @@ public class JwtTokenProvider implements TokenProvider {
      */
     @Override
     public boolean validateToken(String token) throws JWTVerificationException {
-        // Создаем алгоритм RSA256 с публичным ключом
-        Algorithm algorithm = Algorithm.RSA256(publicKey, privateKey); // Второй параметр (privateKey) оставляем null, так как для верификации нужен только публичный ключ
-        // Создаем JWTVerifier с использованием алгоритма
-        JWTVerifier verifier = JWT.require(algorithm).build();
-        verifier.verify(token);
+        verify(token);
         return true;
     }
 
     /**
-     * Извлекает имя пользователя из токена.
-     * В данном случае имя пользователя хранится в поле "iss" токена.
+     * Проверяет подпись и срок действия токена и за один разбор извлекает из него данные пользователя.
      *
      * @param token JWT токен.
-     * @return Имя пользователя.
+     * @return Данные пользователя из токена.
      * @throws TokenExpiredException Если токен истек.
      * @throws SignatureVerificationException Если подпись токена недействительна.
      * @throws JWTVerificationException Если токен не прошел верификацию.
      */
     @Override
-    public String getUsernameFromToken(String token) throws TokenExpiredException, SignatureVerificationException, JWTVerificationException {
-        String username = getAllClaimsFromToken(token).get("iss").toString();
-        System.out.println(username);
-        return username;
-    }
-
-    /**
-     * Извлекает список ролей пользователя из токена.
-     *
-     * @param token JWT токен.
-     * @return Список ролей.
-     */
-    @Override
-    public List<String> getRolesFromToken(String token) {
-        return (List<String>) getAllClaimsFromToken(token).get("roles");
+    public JwtPrincipal verifyAndExtract(String token) throws JWTVerificationException {
+        DecodedJWT jwt = verify(token);
+        return new JwtPrincipal(
+                jwt.getIssuer(),
+                jwt.getClaim("roles").asList(String.class),
+                jwt.getExpiresAtAsInstant(),
+                jwt.getId(),
+                jwt.getClaim("uid").asLong());
     }
 
     /**
-     * Извлекает все утверждения (claims) из токена.
+     * Проверяет токен верификатором ключа, указанного в заголовке "kid".
+     * Токен разбирается один раз, разобранный токен передается верификатору.
      *
      * @param token JWT токен.
-     * @return Карта утверждений из токена.
-     * @throws TokenExpiredException Если токен истек.
-     * @throws SignatureVerificationException Если подпись токена недействительна.
+     * @return Проверенный разобранный токен.
      * @throws JWTVerificationException Если токен не прошел верификацию.
      */
-    private Map<String, Object> getAllClaimsFromToken(String token) throws TokenExpiredException, SignatureVerificationException, JWTVerificationException {
-        DecodedJWT jwt = JWT.decode(token);
-        Map<String, Object> claims = new HashMap<>();
-        return jwt
-                .getClaims()
-                .entrySet()
-                .stream()
-                .collect(Collectors.toMap(Map.Entry::getKey,
-                        entry -> entry.getValue().as(Object.class)));
+    private DecodedJWT verify(String token) throws JWTVerificationException {
+        DecodedJWT decoded = JWT.decode(token);
+        return jwtKeyRing.getVerifier(decoded.getKeyId()).verify(decoded);
     }
 
     /**
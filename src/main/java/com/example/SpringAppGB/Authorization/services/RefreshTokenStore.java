@@ -0,0 +1,138 @@
+package com.example.SpringAppGB.Authorization.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Серверное хранилище токенов обновления (refresh token).
+ * Токен обновления - случайная строка, по которой выдается новый JWT токен без проверки пароля.
+ * В хранилище находится только SHA-256 хэш токена, имя пользователя и момент истечения.
+ * Токен одноразовый: при обновлении он удаляется и взамен выдается новый.
+ * Истекшие записи периодически удаляются.
+ */
+@Component
+@Slf4j
+public class RefreshTokenStore {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Map<String, Entry> tokens = new ConcurrentHashMap<>();
+
+    @Value("${jwt.refresh_lifetime:1d}")
+    private Duration refreshLifetime;
+
+    /**
+     * Запись о выданном токене обновления.
+     *
+     * @param username         имя пользователя
+     * @param expiresAtSeconds момент истечения токена в секундах эпохи
+     */
+    private record Entry(String username, long expiresAtSeconds) {
+        boolean isExpired(long nowSeconds) {
+            return expiresAtSeconds <= nowSeconds;
+        }
+    }
+
+    /**
+     * Результат обмена токена обновления.
+     *
+     * @param username     имя пользователя, которому принадлежал токен
+     * @param refreshToken новый токен обновления
+     */
+    public record Rotation(String username, String refreshToken) {
+    }
+
+    /**
+     * Возвращает время жизни токена обновления.
+     *
+     * @return время жизни токена
+     */
+    public Duration getRefreshLifetime() {
+        return refreshLifetime;
+    }
+
+    /**
+     * Выдает новый токен обновления для пользователя.
+     *
+     * @param username имя пользователя
+     * @return токен обновления
+     */
+    public String issue(String username) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        long expiresAt = Instant.now().plus(refreshLifetime).getEpochSecond();
+        tokens.put(hash(token), new Entry(username, expiresAt));
+        return token;
+    }
+
+    /**
+     * Обменивает токен обновления на новый. Старый токен становится недействительным.
+     *
+     * @param refreshToken предъявленный токен обновления
+     * @return имя пользователя и новый токен или null, если токен неизвестен или истек
+     */
+    public Rotation rotate(String refreshToken) {
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            return null;
+        }
+        Entry entry = tokens.remove(hash(refreshToken));
+        if (entry == null || entry.isExpired(Instant.now().getEpochSecond())) {
+            return null;
+        }
+        return new Rotation(entry.username(), issue(entry.username()));
+    }
+
+    /**
+     * Отзывает токен обновления.
+     *
+     * @param refreshToken токен обновления
+     */
+    public void revoke(String refreshToken) {
+        if (refreshToken != null) {
+            tokens.remove(hash(refreshToken));
+        }
+    }
+
+    /**
+     * Отзывает все токены обновления пользователя.
+     *
+     * @param username имя пользователя
+     */
+    public void revokeAll(String username) {
+        tokens.values().removeIf(entry -> entry.username().equals(username));
+    }
+
+    /**
+     * Периодически удаляет истекшие токены обновления.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh_sweep_interval:PT5M}")
+    public void sweepExpired() {
+        long now = Instant.now().getEpochSecond();
+        int before = tokens.size();
+        tokens.values().removeIf(entry -> entry.isExpired(now));
+        log.debug("Refresh token sweep removed {} expired tokens", before - tokens.size());
+    }
+
+    private String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+}
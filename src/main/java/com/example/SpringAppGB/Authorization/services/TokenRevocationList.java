@@ -0,0 +1,157 @@
+package com.example.SpringAppGB.Authorization.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Список отозванных JWT токенов (denylist) по идентификатору "jti".
+ * Перед множеством отозванных идентификаторов стоит фильтр Блума, поэтому для неотозванного
+ * токена проверка в {@link com.example.SpringAppGB.Authorization.filters.JwtAuthenticationFilter}
+ * сводится к нескольким чтениям битов без обращения к базе данных и без поиска в хэш-таблице.
+ * Запись хранится до наступления срока "exp" токена: после этого токен отклоняется проверкой
+ * срока действия, и запись удаляется периодической очисткой. Фильтр Блума не поддерживает удаление,
+ * поэтому при очистке он перестраивается по оставшимся записям.
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>(); // jti -> exp в секундах эпохи
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter bloomFilter;
+
+    /**
+     * Создает пустой список отозванных токенов.
+     *
+     * @param expectedEntries   ожидаемое количество одновременно отозванных токенов
+     * @param falsePositiveRate допустимая доля ложных срабатываний фильтра Блума
+     * @param meterRegistry     реестр метрик приложения
+     */
+    public TokenRevocationList(@Value("${jwt.revocation.expected_entries:100000}") int expectedEntries,
+                               @Value("${jwt.revocation.false_positive_rate:0.001}") double falsePositiveRate,
+                               MeterRegistry meterRegistry) {
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.bloomFilter = new BloomFilter(expectedEntries, falsePositiveRate);
+        Gauge.builder("jwt.revoked_tokens", revoked, Map::size)
+                .description("Number of revoked JWT tokens that have not expired yet")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Отзывает токен до истечения его срока действия.
+     *
+     * @param tokenId   идентификатор токена ("jti")
+     * @param expiresAt момент истечения срока действия токена ("exp")
+     */
+    public synchronized void revoke(String tokenId, Instant expiresAt) {
+        if (tokenId == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return; // Истекший токен и так будет отклонен
+        }
+        revoked.put(tokenId, expiresAt.getEpochSecond());
+        bloomFilter.add(tokenId);
+    }
+
+    /**
+     * Проверяет, отозван ли токен. В общем случае ответ дает фильтр Блума,
+     * и только при его срабатывании выполняется точная проверка по множеству.
+     *
+     * @param tokenId идентификатор токена ("jti")
+     * @return true, если токен отозван
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !bloomFilter.mightContain(tokenId)) {
+            return false;
+        }
+        return revoked.containsKey(tokenId);
+    }
+
+    /**
+     * Удаляет записи истекших токенов и перестраивает фильтр Блума по оставшимся записям.
+     * Размер фильтра увеличивается, если отозванных токенов больше ожидаемого количества.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sweep_interval:PT1M}")
+    public synchronized void sweepExpired() {
+        long now = Instant.now().getEpochSecond();
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::add);
+        bloomFilter = rebuilt;
+        log.debug("Revocation list sweep removed {} expired tokens, {} remain", before - revoked.size(), revoked.size());
+    }
+
+    /**
+     * Потокобезопасный фильтр Блума для строковых идентификаторов.
+     * Позиции битов вычисляются двойным хэшированием от 64-битного хэша FNV-1a.
+     */
+    private static final class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(int expectedEntries, double falsePositiveRate) {
+            int entries = Math.max(1, expectedEntries);
+            long size = (long) Math.ceil(-entries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bits = new AtomicLongArray((int) ((size + 63) / 64));
+            this.bitCount = bits.length() * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / entries * Math.log(2)));
+        }
+
+        void add(String value) {
+            long hash1 = fnv1a(value);
+            long hash2 = mix(hash1);
+            for (int i = 0; i < hashCount; i++) {
+                long index = Math.floorMod(hash1 + i * hash2, bitCount);
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash1 = fnv1a(value);
+            long hash2 = mix(hash1);
+            for (int i = 0; i < hashCount; i++) {
+                long index = Math.floorMod(hash1 + i * hash2, bitCount);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long fnv1a(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+
+        /**
+         * Финализатор SplitMix64, дающий второй независимый хэш.
+         */
+        private static long mix(long hash) {
+            hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+            hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+            return (hash ^ (hash >>> 31)) | 1L;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.SpringAppGB.Authorization.services;
+
+import com.example.SpringAppGB.Authorization.model.JwtPrincipal;
+import com.example.SpringAppGB.config.CacheConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Ограниченный по размеру потокобезопасный кэш уже проверенных JWT токенов.
+ * Ключом служит SHA-256 хэш токена, значением - неизменяемый {@link JwtPrincipal}.
+ * Запись удаляется при превышении размера кэша или по наступлении срока "exp" токена,
+ * поэтому повторные запросы с тем же токеном не требуют повторной проверки RSA подписи.
+ * Статистика попаданий, промахов и вытеснений публикуется в Micrometer под именем "jwt.verified_tokens".
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<String, JwtPrincipal> cache;
+
+    /**
+     * Создает кэш и регистрирует его метрики.
+     *
+     * @param maxSize       максимальное количество токенов в кэше
+     * @param meterRegistry реестр метрик приложения
+     */
+    public VerifiedTokenCache(@Value("${jwt.cache.max_size:10000}") long maxSize,
+                              MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified_tokens", CacheConfig.CACHE_MANAGER_TAG, "none");
+    }
+
+    /**
+     * Возвращает данные пользователя для токена из кэша, а при их отсутствии
+     * проверяет токен переданной функцией и сохраняет результат.
+     *
+     * @param token    JWT токен
+     * @param verifier функция полной проверки токена; исключения проверки пробрасываются вызывающему
+     * @return данные пользователя из токена
+     */
+    public JwtPrincipal get(String token, Function<String, JwtPrincipal> verifier) {
+        return cache.get(hash(token), key -> verifier.apply(token));
+    }
+
+    /**
+     * Удаляет токен из кэша.
+     *
+     * @param token JWT токен
+     */
+    public void invalidate(String token) {
+        cache.invalidate(hash(token));
+    }
+
+    /**
+     * Вычисляет SHA-256 хэш токена, чтобы не хранить сами токены в памяти.
+     *
+     * @param token JWT токен
+     * @return Base64-представление хэша
+     */
+    private String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Политика истечения записей: запись живет до момента "exp" токена.
+     */
+    private static class TokenExpiry implements Expiry<String, JwtPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtPrincipal principal, long currentTime) {
+            if (principal.expiresAt() == null) {
+                return 0;
+            }
+            return Math.max(0, Duration.between(Instant.now(), principal.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, principal, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
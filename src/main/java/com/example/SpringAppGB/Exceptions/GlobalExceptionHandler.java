@@ -5,6 +5,8 @@ import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.exceptions.SignatureVerificationException;
 import com.auth0.jwt.exceptions.TokenExpiredException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -87,6 +89,35 @@ public class GlobalExceptionHandler {
     }
 
 
+    /**
+     * Обработка переполнения очереди проверки паролей при входе.
+     * Возвращает ответ 429 с заголовком Retry-After, чтобы клиент повторил вход позже.
+     *
+     * @param ex Исключение, возникающее при заполненной очереди проверки паролей.
+     * @return Ответ с ошибкой и кодом состояния 429 (Too Many Requests).
+     */
+    @ExceptionHandler(LoginOverloadedException.class)
+    public ResponseEntity<String> handleLoginOverloaded(LoginOverloadedException ex) {
+        log.debug("Очередь проверки паролей заполнена");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body("An error occurred: " + ex.getMessage());
+    }
+
+    /**
+     * Обработка конфликта версий при изменении пользователя или проекта.
+     * Возвращает ответ 412, чтобы клиент перечитал данные и повторил изменение.
+     *
+     * @param ex Исключение, возникающее, если запись изменена после того, как клиент ее прочитал.
+     * @return Ответ с ошибкой и кодом состояния 412 (Precondition Failed).
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleVersionConflict(OptimisticLockingFailureException ex) {
+        log.debug("Конфликт версий: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body("An error occurred: the record was modified by another request");
+    }
+
     /**
      * Обработка других исключений. Возвращает ответ с сообщением об ошибке.
      *
@@ -0,0 +1,22 @@
+package com.example.SpringAppGB.Exceptions;
+
+/**
+ * Исключение, выбрасываемое при переполнении очереди проверки паролей.
+ * Обрабатывается {@link GlobalExceptionHandler} ответом 429 (Too Many Requests) с заголовком Retry-After.
+ */
+public class LoginOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * @param retryAfterSeconds через сколько секунд клиенту следует повторить запрос
+     */
+    public LoginOverloadedException(long retryAfterSeconds) {
+        super("Too many login attempts, try again later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,25 +1,42 @@
 package com.example.SpringAppGB.config;
 
+import com.example.SpringAppGB.Authorization.resolvers.CurrentUserArgumentResolver;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.CacheControl;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.web.filter.HiddenHttpMethodFilter;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewResolverRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 import org.thymeleaf.spring6.templateresolver.SpringResourceTemplateResolver;
 import org.thymeleaf.spring6.view.ThymeleafViewResolver;
 
+import java.time.Duration;
+import java.util.List;
+
 /**
  * Конфигурация приложения Spring, включая настройки MVC и Thymeleaf.
  */
@@ -29,9 +46,14 @@ import org.thymeleaf.spring6.view.ThymeleafViewResolver;
 @EnableTransactionManagement
 @AllArgsConstructor
 @EnableAspectJAutoProxy
+@EnableScheduling
 public class AppSpringConfig implements WebMvcConfigurer {
 
+    private static final Duration STATIC_ASSETS_MAX_AGE = Duration.ofDays(365);
+    private static final String FINGERPRINTED_FILE = "/{file:.+-[0-9a-f]{32}\\.\\w+}"; // Имя файла с хешем содержимого (md5)
+
     private final ApplicationContext applicationContext;
+    private final CurrentUserArgumentResolver currentUserArgumentResolver;
 
     /**
      * Создает шаблонизатор для Thymeleaf.
@@ -69,8 +91,14 @@ public class AppSpringConfig implements WebMvcConfigurer {
         registry.viewResolver(resolver);
     }
 
+    /**
+     * Создает кодировщик паролей. Метод статический, чтобы кодировщик не зависел от создания этой конфигурации:
+     * ей через резолвер текущего пользователя нужен UserService, которому нужен кодировщик.
+     *
+     * @return кодировщик паролей BCrypt
+     */
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
+    public static BCryptPasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
 
@@ -83,9 +111,98 @@ public class AppSpringConfig implements WebMvcConfigurer {
     public HiddenHttpMethodFilter hiddenHttpMethodFilter() {
         return new HiddenHttpMethodFilter();
     }
+    /**
+     * Настраивает асинхронную обработку запросов, в которой пишутся потоковые ответы (StreamingResponseBody).
+     * Выгрузка больших таблиц может идти дольше стандартного таймаута контейнера,
+     * поэтому таймаут задается параметром export.timeout.
+     *
+     * @param configurer настройки асинхронной обработки
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        Environment environment = applicationContext.getEnvironment();
+        Duration timeout = environment.getProperty("export.timeout", Duration.class, Duration.ofMinutes(30));
+        configurer.setDefaultTimeout(timeout.toMillis());
+        configurer.setTaskExecutor(mvcAsyncExecutor());
+    }
+
+    /**
+     * Создает исполнитель асинхронных ответов.
+     * Число одновременных выгрузок ограничено, так как каждая из них держит соединение с базой.
+     * В режиме виртуальных потоков (spring.threads.virtual.enabled) каждая выгрузка выполняется
+     * в отдельном виртуальном потоке, а сверх лимита запрос ждет освобождения места вместо отказа.
+     *
+     * @return исполнитель асинхронных ответов
+     */
+    @Bean
+    public AsyncTaskExecutor mvcAsyncExecutor() {
+        Environment environment = applicationContext.getEnvironment();
+        int threads = environment.getProperty("export.threads", Integer.class, 4);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("mvc-async-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(threads);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(16);
+        executor.setThreadNamePrefix("mvc-async-");
+        return executor;
+    }
+
+    /**
+     * Регистрирует резолвер параметров, отмеченных {@link com.example.SpringAppGB.Authorization.resolvers.CurrentUser}.
+     *
+     * @param resolvers список резолверов аргументов контроллеров
+     */
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentUserArgumentResolver);
+    }
+
+    /**
+     * Регистрирует обработчики статических ресурсов.
+     * Шаблоны ссылаются на ресурсы по адресам с хешем содержимого в имени (например, /css/styles-&lt;md5&gt;.css).
+     * Такие адреса кэшируются в браузере на год без повторной проверки: при изменении файла меняется адрес.
+     * Адреса без хеша (прямые ссылки) проверяются при каждом использовании по Last-Modified,
+     * чтобы измененный файл не оставался в кэше браузера. Заголовок кэширования добавляется только
+     * к найденному ресурсу, поэтому ответ на адрес с неверным хешем не кэшируется.
+     * Если рядом с ресурсом есть сжатая при сборке копия (.gz), она отдается клиентам, которые поддерживают gzip.
+     *
+     * @param registry реестр обработчиков ресурсов
+     */
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/css/**").addResourceLocations("classpath:/static/css/");
+        for (String directory : List.of("css", "js")) {
+            String location = "classpath:/static/" + directory + "/";
+            configureAssets(registry.addResourceHandler("/" + directory + FINGERPRINTED_FILE).addResourceLocations(location),
+                    CacheControl.maxAge(STATIC_ASSETS_MAX_AGE).cachePublic().immutable());
+            configureAssets(registry.addResourceHandler("/" + directory + "/**").addResourceLocations(location),
+                    CacheControl.noCache().cachePublic());
+        }
+    }
+
+    private static void configureAssets(ResourceHandlerRegistration registration, CacheControl cacheControl) {
+        EncodedResourceResolver encodedResourceResolver = new EncodedResourceResolver();
+        encodedResourceResolver.setContentCodings(List.of("gzip")); // При сборке создаются только копии .gz
+        registration
+                .setCacheControl(cacheControl)
+                .resourceChain(true)
+                .addResolver(encodedResourceResolver)
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+
+    /**
+     * Создает фильтр, который заменяет адреса статических ресурсов в ссылках шаблонов (@{/css/styles.css})
+     * на адреса с хешем содержимого.
+     *
+     * @return фильтр подстановки версий ресурсов
+     */
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
     }
 
 }
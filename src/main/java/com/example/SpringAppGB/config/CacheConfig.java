@@ -0,0 +1,83 @@
+package com.example.SpringAppGB.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Конфигурация кэшей пользователей и проектов.
+ * Каждый кэш ограничен по размеру и времени жизни записей (параметры cache.&lt;имя&gt;.max_size и cache.&lt;имя&gt;.ttl).
+ * Кэши работают с учетом транзакций: запись и удаление выполняются после фиксации транзакции,
+ * поэтому откаченные изменения не попадают в кэш, а параллельное чтение не возвращает в кэш старые данные
+ * до фиксации изменения. Статистика каждого кэша публикуется в метриках cache.* с тегами cache=&lt;имя&gt; и cacheManager.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Пользователи по идентификатору.
+     */
+    public static final String USERS = "users";
+
+    /**
+     * Пользователи по имени пользователя.
+     */
+    public static final String USERS_BY_NAME = "users_by_name";
+
+    /**
+     * Проекты по идентификатору.
+     */
+    public static final String PROJECTS = "projects";
+
+    /**
+     * Тег менеджера кэшей в метриках cache.*. Prometheus требует одинакового набора тегов у метрик
+     * с одним именем, поэтому этот тег указывают и кэши, созданные вне менеджера.
+     */
+    public static final String CACHE_MANAGER_TAG = "cacheManager";
+
+    /**
+     * Создает менеджер кэшей и регистрирует метрики кэшей.
+     *
+     * @param environment   окружение с параметрами кэшей
+     * @param meterRegistry реестр метрик приложения
+     * @return менеджер кэшей с учетом транзакций
+     */
+    @Bean
+    public CacheManager cacheManager(Environment environment, MeterRegistry meterRegistry) {
+        List<CaffeineCache> caches = List.of(
+                buildCache(USERS, "cache.users", environment, meterRegistry),
+                buildCache(USERS_BY_NAME, "cache.users", environment, meterRegistry),
+                buildCache(PROJECTS, "cache.projects", environment, meterRegistry));
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(caches);
+        cacheManager.afterPropertiesSet();
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    private static CaffeineCache buildCache(String name, String prefix, Environment environment,
+                                            MeterRegistry meterRegistry) {
+        long maxSize = environment.getProperty(prefix + ".max_size", Long.class, 10_000L);
+        Duration ttl = environment.getProperty(prefix + ".ttl", Duration.class, Duration.ofMinutes(10));
+        Cache<Object, Object> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Тот же набор тегов, с которым Spring Boot привязывает метрики кэшей менеджера "cacheManager"
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name, CACHE_MANAGER_TAG, "cacheManager");
+        return new CaffeineCache(name, cache, false);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.SpringAppGB.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Конфигурация пула потоков для хеширования паролей при массовом импорте пользователей.
+ * Пул отделен от пула проверки паролей при входе, чтобы импорт не задерживал вход пользователей.
+ */
+@Configuration
+public class ImportExecutorConfig {
+
+    /**
+     * Создает пул потоков для хеширования паролей импортируемых пользователей.
+     * При заполненной очереди задача выполняется в вызывающем потоке, что ограничивает скорость
+     * чтения входного файла скоростью хеширования.
+     * Метрики пула публикуются в метриках executor.* с тегом name=users.import.
+     *
+     * @param threads       количество потоков пула; 0 - по числу процессоров
+     * @param queueCapacity размер очереди паролей, ожидающих хеширования
+     * @param meterRegistry реестр метрик приложения
+     * @return пул потоков для хеширования паролей
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor passwordHashExecutor(@Value("${import.hash_threads:0}") int threads,
+                                                   @Value("${import.queue_capacity:1000}") int queueCapacity,
+                                                   MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("import-hash-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        new ExecutorServiceMetrics(executor, "users.import", Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+}
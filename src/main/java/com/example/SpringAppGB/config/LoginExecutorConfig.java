@@ -0,0 +1,45 @@
+package com.example.SpringAppGB.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Конфигурация пула потоков для проверки паролей при входе пользователей.
+ * Проверка BCrypt выполняется в отдельном пуле фиксированного размера с ограниченной очередью,
+ * чтобы всплеск входов не занимал все потоки Tomcat и не останавливал обработку запросов /api/**.
+ */
+@Configuration
+public class LoginExecutorConfig {
+
+    /**
+     * Создает пул потоков для проверки паролей.
+     * При заполненной очереди новые задачи отклоняются с {@link java.util.concurrent.RejectedExecutionException}.
+     * Размер пула, очередь и число выполненных задач публикуются в метриках executor.* с тегом name=auth.login.
+     *
+     * @param threads       количество потоков пула
+     * @param queueCapacity размер очереди ожидающих проверки запросов
+     * @param meterRegistry реестр метрик приложения
+     * @return пул потоков для проверки паролей
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor loginExecutor(@Value("${auth.login.threads:4}") int threads,
+                                            @Value("${auth.login.queue_capacity:64}") int queueCapacity,
+                                            MeterRegistry meterRegistry) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("login-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "auth.login", Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+}
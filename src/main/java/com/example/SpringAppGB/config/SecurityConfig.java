@@ -1,9 +1,12 @@
 package com.example.SpringAppGB.config;
 
 import com.example.SpringAppGB.Authorization.filters.JwtAuthenticationFilter;
+import com.example.SpringAppGB.services.UserDetailsCache;
 import com.example.SpringAppGB.services.UserService;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,6 +15,7 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -32,6 +36,7 @@ public class SecurityConfig {
     private final UserService userService;
     private final PasswordEncoder passwordEncoder;  // Внедряем PasswordEncoder из AppConfig
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final UserDetailsCache userDetailsCache;
 
 
     /**
@@ -49,8 +54,11 @@ public class SecurityConfig {
                 //.cors(AbstractHttpConfigurer::disable)
                 // Настройка авторизации
                 .authorizeHttpRequests(authz -> authz
-                        .requestMatchers("/css/**").permitAll()
+                        // Повторная диспетчеризация после потокового ответа уже прошла проверку исходного запроса
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/auth/login").permitAll()
+                        .requestMatchers("/auth/refresh").permitAll()
+                        .requestMatchers("/.well-known/jwks.json").permitAll()
                         .requestMatchers("/actuator/metrics").permitAll()
                         .requestMatchers("/actuator/health").permitAll()
                         .requestMatchers("/actuator/prometheus").permitAll()
@@ -76,8 +84,36 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Исключает статические ресурсы из цепочки фильтров безопасности.
+     * Ресурсы публичные и не зависят от пользователя, поэтому запросы к ним не проходят
+     * ни проверку токена, ни запись заголовков безопасности.
+     *
+     * @return настройка, исключающая адреса статических ресурсов
+     */
+    @Bean
+    public WebSecurityCustomizer staticResourcesSecurityCustomizer() {
+        return web -> web.ignoring().requestMatchers("/css/**", "/js/**");
+    }
+
+    /**
+     * Отключает регистрацию {@link JwtAuthenticationFilter} как отдельного фильтра контейнера.
+     * Фильтр является бином, поэтому без этой настройки Spring Boot добавил бы его ко всем запросам,
+     * включая исключенные из цепочки безопасности; фильтр должен выполняться только внутри цепочки.
+     *
+     * @param filter фильтр проверки JWT токена
+     * @return отключенная регистрация фильтра
+     */
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration(JwtAuthenticationFilter filter) {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     /**
      * Создает и настраивает DaoAuthenticationProvider.
+     * Загруженные пользователи кэшируются в {@link UserDetailsCache}.
      *
      * @return настроенный DaoAuthenticationProvider
      */
@@ -86,6 +122,7 @@ public class SecurityConfig {
         DaoAuthenticationProvider  daoAuthenticationProvider = new DaoAuthenticationProvider();
         daoAuthenticationProvider.setUserDetailsService(userService);
         daoAuthenticationProvider.setPasswordEncoder(passwordEncoder);
+        daoAuthenticationProvider.setUserCache(userDetailsCache);
         return daoAuthenticationProvider;
     }
 
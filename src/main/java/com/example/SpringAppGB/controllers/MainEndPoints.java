@@ -1,10 +1,9 @@
 package com.example.SpringAppGB.controllers;
 
-import com.example.SpringAppGB.model.Project;
-import com.example.SpringAppGB.model.User;
+import com.example.SpringAppGB.Authorization.resolvers.CurrentUser;
+import com.example.SpringAppGB.model.DTO.ProjectSummary;
+import com.example.SpringAppGB.model.DTO.UserSummary;
 import com.example.SpringAppGB.services.UserProjectService;
-import com.example.SpringAppGB.services.UserService;
-import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -16,7 +15,6 @@ import java.util.List;
 @AllArgsConstructor
 public class MainEndPoints {
 
-    private final UserService userService;
     private final UserProjectService userProjectService;
 
 
@@ -33,15 +31,14 @@ public class MainEndPoints {
     /**
      * Эндпоинт для отображения профиля пользователя с проектами.
      *
+     * @param user Текущий пользователь, определенный по данным аутентификации.
      * @param model Модель для передачи данных в представление.
-     * @param request HTTP запрос для извлечения данных пользователя из токена.
      * @return Название представления страницы профиля пользователя.
      */
     @GetMapping("/user/profile")
-    public String userProfile(Model model, HttpServletRequest request) {
-        User user = userService.getUserFromToken(request);
+    public String userProfile(@CurrentUser UserSummary user, Model model) {
         model.addAttribute("user", user);
-        List<Project> projects = userProjectService.getProjectsByUserId(user.getId());
+        List<ProjectSummary> projects = userProjectService.getProjectsByUserId(user.id());
         model.addAttribute("projects", projects);
         return "/user/profile";
     }
@@ -1,8 +1,9 @@
 package com.example.SpringAppGB.controllers;
 
 
-import com.example.SpringAppGB.model.Project;
-import com.example.SpringAppGB.model.User;
+import com.example.SpringAppGB.model.DTO.KeysetPage;
+import com.example.SpringAppGB.model.DTO.ProjectSummary;
+import com.example.SpringAppGB.model.DTO.UserSummary;
 import com.example.SpringAppGB.services.ProjectService;
 import com.example.SpringAppGB.services.UserProjectService;
 import com.example.SpringAppGB.services.UserService;
@@ -31,6 +32,8 @@ public class UserProjectController {
     private final UserService userService;
     private final ProjectService projectService;
 
+    private static final int ADD_USERS_PAGE_SIZE = 50;
+
 
     /**
      * Метод обрабатывает GET-запрос и возвращает главную страницу
@@ -52,7 +55,7 @@ public class UserProjectController {
      */
     @GetMapping("/project/{id}/users")
     public String getUsersByProjectId(@PathVariable("id") Long projectId, Model model) {
-        List<User> users = userProjectService.getUsersByProjectId(projectId);
+        List<UserSummary> users = userProjectService.getUsersByProjectId(projectId);
         if (users != null) {
             model.addAttribute("projectId", projectId);
             model.addAttribute("users", users);
@@ -70,9 +73,9 @@ public class UserProjectController {
      */
     @GetMapping("/user/{id}/projects")
     public String getProjectsByUserId(@PathVariable("id") Long userId, Model model) {
-        List<Project> projects = userProjectService.getProjectsByUserId(userId);
+        List<ProjectSummary> projects = userProjectService.getProjectsByUserId(userId);
         if (projects != null) {
-            model.addAttribute("userName", userService.getUserById(userId).getUserName());
+            model.addAttribute("userName", userService.getUserSummaryById(userId).userName());
             model.addAttribute("projects", projects);
             return "/users/user_projects";
         }
@@ -80,19 +83,29 @@ public class UserProjectController {
     }
 
     /**
-     * Метод обрабатывает GET-запрос и возвращает форму для добавления пользователей к проекту
+     * Метод обрабатывает GET-запрос и возвращает форму для добавления пользователей к проекту.
+     * Пользователи, не входящие в проект, выводятся страницами по {@value #ADD_USERS_PAGE_SIZE}
+     * с необязательным фильтром по началу имени или адреса электронной почты.
      *
      * @param projectId идентификатор проекта
+     * @param after     идентификатор последнего пользователя предыдущей страницы
+     * @param query     начало имени или адреса электронной почты
      * @param model     модель для передачи данных в представление
      * @return имя шаблона для действий с проектом
      */
     @GetMapping("/add_user_to_project/{id}")
-    public String addUserToProject(@PathVariable("id") Long projectId, Model model) {
-        List<User> users = userProjectService.getUsersNotInProject(projectId);
-        if (users != null) {
+    public String addUserToProject(@PathVariable("id") Long projectId,
+                                   @RequestParam(value = "after", required = false) Long after,
+                                   @RequestParam(value = "query", required = false) String query,
+                                   Model model) {
+        KeysetPage<UserSummary> page = userProjectService.getUsersNotInProject(projectId, after, query,
+                ADD_USERS_PAGE_SIZE);
+        if (page != null) {
             model.addAttribute("projectId", projectId);
-            model.addAttribute("projectName", projectService.findProjectById(projectId).getName());
-            model.addAttribute("users", users);
+            model.addAttribute("projectName", projectService.getProjectSummaryById(projectId).name());
+            model.addAttribute("users", page.getItems());
+            model.addAttribute("nextCursor", page.getNextCursor());
+            model.addAttribute("query", query);
             model.addAttribute("message", "Добавить выбранных пользователей");
             model.addAttribute("action", "add");
             return "/projects/add_remove_user_to_project";
@@ -119,7 +132,7 @@ public class UserProjectController {
         if (!userProjectService.addUserToProject(projectId, userIds)) {
             return "redirect:/projects/project_managment";
         }
-        List<User> users = userProjectService.getUsersByProjectId(projectId);
+        List<UserSummary> users = userProjectService.getUsersByProjectId(projectId);
         model.addAttribute("projectId", projectId);
         model.addAttribute("users", users);
         return "/projects/project_managment";
@@ -134,10 +147,10 @@ public class UserProjectController {
      */
     @GetMapping("/remove_users_from_project/{id}")
     public String removeUserFromProject(@PathVariable("id") Long projectId, Model model) {
-        List<User> users = userProjectService.getUsersByProjectId(projectId);
+        List<UserSummary> users = userProjectService.getUsersByProjectId(projectId);
         if (users != null) {
             model.addAttribute("projectId", projectId);
-            model.addAttribute("projectName", projectService.findProjectById(projectId).getName());
+            model.addAttribute("projectName", projectService.getProjectSummaryById(projectId).name());
             model.addAttribute("users", users);
             model.addAttribute("message", "Удалить выбранных пользователей");
             model.addAttribute("action", "remove");
@@ -163,7 +176,7 @@ public class UserProjectController {
             return "redirect:/projects/project_managment"; // Перенаправление на главную страницу, если проект не найден
         }
         if (userProjectService.removeUserFromProject(projectId, userIds)) {
-            List<User> users = userProjectService.getUsersByProjectId(projectId);
+            List<UserSummary> users = userProjectService.getUsersByProjectId(projectId);
             model.addAttribute("projectId", projectId);
             model.addAttribute("users", users);
             return "/projects/project_managment";
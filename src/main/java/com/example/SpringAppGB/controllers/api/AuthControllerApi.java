@@ -3,6 +3,7 @@ package com.example.SpringAppGB.controllers.api;
 import com.example.SpringAppGB.controllers.api.Interfaces.AuthInterface;
 import com.example.SpringAppGB.model.DTO.JwtRequest;
 import com.example.SpringAppGB.services.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -17,7 +18,7 @@ import java.util.stream.Collectors;
 
 /**
  * Контроллер для обработки запросов, связанных с авторизацией.
- * Предоставляет API для получения токена и входа в систему.
+ * Предоставляет API для получения токена, входа в систему, обновления токена и выхода.
  */
 @RestController
 @RequiredArgsConstructor
@@ -59,6 +60,32 @@ public class AuthControllerApi implements AuthInterface {
         }
         return authService.createAuthToken(userDTO, response);
     }
-}
 
+    /**
+     * Эндпоинт для получения нового JWT токена по токену обновления из cookie.
+     * Пароль не проверяется, использованный токен обновления заменяется новым.
+     *
+     * @param request Запрос с cookie токена обновления.
+     * @param response Ответ для добавления новых токенов в cookie.
+     * @return Ответ с перенаправлением в случае успеха или 401, если токен обновления недействителен.
+     */
+    @PostMapping("/refresh")
+    @Override
+    public ResponseEntity<?> refresh(HttpServletRequest request, HttpServletResponse response) {
+        return authService.refreshAuthToken(request, response);
+    }
 
+    /**
+     * Эндпоинт для выхода из системы. Текущий JWT токен отзывается до истечения срока действия,
+     * токен обновления становится недействительным, cookie с токенами удаляются.
+     *
+     * @param request Запрос с JWT токеном и токеном обновления.
+     * @param response Ответ для удаления cookie.
+     * @return Ответ с перенаправлением на страницу входа.
+     */
+    @PostMapping("/logout")
+    @Override
+    public ResponseEntity<?> logout(HttpServletRequest request, HttpServletResponse response) {
+        return authService.logout(request, response);
+    }
+}
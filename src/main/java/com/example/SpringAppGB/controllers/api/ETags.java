@@ -0,0 +1,85 @@
+package com.example.SpringAppGB.controllers.api;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Вспомогательные методы для условных запросов к API.
+ * ETag списков строится по счетчикам изменений коллекций, ETag сущности - по ее версии.
+ */
+final class ETags {
+
+    /**
+     * Ответы API можно хранить только в кэше браузера и перед использованием нужно проверять на сервере.
+     */
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private static final long NO_MATCH = -1L; // Версия, которой нет ни у одной записи
+
+    private ETags() {
+    }
+
+    /**
+     * Строит строгий ETag сущности по ее версии.
+     *
+     * @param version версия сущности
+     * @return ETag в кавычках
+     */
+    static String ofVersion(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Проверяет, совпадает ли ETag с одним из значений заголовка If-None-Match.
+     * Сравнение слабое, как требует RFC 9110 для If-None-Match.
+     *
+     * @param ifNoneMatch значение заголовка If-None-Match или null
+     * @param etag        текущий ETag ответа
+     * @return true, если у клиента актуальная версия ответа
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.strip();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Возвращает ответ 304 Not Modified без тела.
+     *
+     * @param etag текущий ETag ответа
+     * @return ответ 304
+     */
+    static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+    }
+
+    /**
+     * Извлекает ожидаемую версию сущности из заголовка If-Match.
+     * Слабый или некорректный ETag не совпадает ни с одной версией, что приводит к ответу 412.
+     *
+     * @param ifMatch значение заголовка If-Match или null
+     * @return ожидаемая версия или null, если заголовок не задан или равен "*"
+     */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.strip();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            return NO_MATCH;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return NO_MATCH;
+        }
+    }
+}
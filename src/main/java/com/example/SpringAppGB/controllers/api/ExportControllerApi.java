@@ -0,0 +1,55 @@
+package com.example.SpringAppGB.controllers.api;
+
+import com.example.SpringAppGB.services.ExportService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Контроллер потоковой выгрузки данных для сверки.
+ * Ответ формируется в формате NDJSON по мере чтения записей из базы данных,
+ * поэтому размер выгрузки не ограничен доступной памятью.
+ */
+@RestController
+@RequestMapping("/api/export")
+@AllArgsConstructor
+public class ExportControllerApi {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ExportService exportService;
+
+    /**
+     * Метод обрабатывает GET-запрос на выгрузку всех пользователей.
+     *
+     * @return поток пользователей в формате NDJSON.
+     */
+    @GetMapping("/users")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return ResponseEntity.ok().contentType(NDJSON).body(exportService::writeUsers);
+    }
+
+    /**
+     * Метод обрабатывает GET-запрос на выгрузку всех проектов.
+     *
+     * @return поток проектов в формате NDJSON.
+     */
+    @GetMapping("/projects")
+    public ResponseEntity<StreamingResponseBody> exportProjects() {
+        return ResponseEntity.ok().contentType(NDJSON).body(exportService::writeProjects);
+    }
+
+    /**
+     * Метод обрабатывает GET-запрос на выгрузку всех связей пользователей и проектов.
+     *
+     * @return поток пар идентификаторов проекта и пользователя в формате NDJSON.
+     */
+    @GetMapping("/memberships")
+    public ResponseEntity<StreamingResponseBody> exportMemberships() {
+        return ResponseEntity.ok().contentType(NDJSON).body(exportService::writeMemberships);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.SpringAppGB.controllers.api.Interfaces;
 
 import com.example.SpringAppGB.model.DTO.JwtRequest;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -13,4 +14,8 @@ public interface AuthInterface {
     ResponseEntity<?> login (@Valid @RequestBody JwtRequest userDTO, BindingResult bindingResult,
                              HttpServletResponse response);
 
+    ResponseEntity<?> refresh(HttpServletRequest request, HttpServletResponse response);
+
+    ResponseEntity<?> logout(HttpServletRequest request, HttpServletResponse response);
+
 }
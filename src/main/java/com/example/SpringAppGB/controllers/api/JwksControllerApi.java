@@ -0,0 +1,30 @@
+package com.example.SpringAppGB.controllers.api;
+
+import com.example.SpringAppGB.Authorization.services.JwtKeyRing;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Контроллер, публикующий действующие публичные ключи проверки JWT токенов.
+ * Позволяет другим узлам и сервисам проверять токены без доступа к файлам ключей.
+ */
+@RestController
+@AllArgsConstructor
+public class JwksControllerApi {
+
+    private final JwtKeyRing jwtKeyRing;
+
+    /**
+     * Метод обрабатывает GET-запрос на получение публичных ключей в формате JWKS.
+     *
+     * @return набор публичных ключей с их идентификаторами
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        return ResponseEntity.ok(jwtKeyRing.getJwks());
+    }
+}
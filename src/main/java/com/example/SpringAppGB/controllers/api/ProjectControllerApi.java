@@ -2,9 +2,11 @@ package com.example.SpringAppGB.controllers.api;
 
 
 import com.example.SpringAppGB.model.Project;
+import com.example.SpringAppGB.services.ChangeCounters;
 import com.example.SpringAppGB.services.ProjectService;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -24,41 +26,67 @@ import java.util.stream.Collectors;
 public class ProjectControllerApi {
 
     private final ProjectService projectService;
+    private final ChangeCounters changeCounters;
 
+    private static final int MAX_PAGE_SIZE = 200;
 
     /**
-     * Метод обрабатывает GET-запрос на получение всех проектов.
+     * Метод обрабатывает GET-запрос на получение проектов постранично.
+     * Проекты упорядочены по идентификатору; для получения следующей страницы
+     * передается параметр after, равный nextCursor предыдущего ответа.
+     * Ответ содержит ETag, построенный по счетчику изменений проектов; если проекты не менялись,
+     * на запрос с If-None-Match возвращается 304 без обращения к базе данных.
      *
-     * @return список всех проектов в виде ответа HTTP.
+     * @param after идентификатор последнего проекта предыдущей страницы.
+     * @param limit размер страницы (от 1 до 200).
+     * @param ifNoneMatch ETag ранее полученного ответа.
+     * @return страница проектов и курсор следующей страницы в виде ответа HTTP.
      */
     @GetMapping("/get_all")
-    public ResponseEntity<?> getAllProjects() {
-        return ResponseEntity.ok(projectService.getAllProjects());
+    public ResponseEntity<?> getAllProjects(@RequestParam(value = "after", required = false) Long after,
+                                            @RequestParam(value = "limit", defaultValue = "50") int limit,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = changeCounters.etag(ChangeCounters.Scope.PROJECTS);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok().eTag(etag).cacheControl(ETags.REVALIDATE)
+                .body(projectService.getProjectsPage(after, pageSize));
     }
 
     /**
      * Обрабатывает GET-запрос на поиск проектов по имени или описанию.
+     * Результаты упорядочены по релевантности и возвращаются постранично.
      *
      * @param searchText текст для поиска в именах или описаниях проектов.
-     * @return список проектов, соответствующих запросу.
+     * @param offset смещение первой записи страницы.
+     * @param limit размер страницы (от 1 до 200).
+     * @return страница проектов, соответствующих запросу, и смещение следующей страницы.
      */
     @GetMapping("/search")
-    public ResponseEntity<?> searchProjects(@RequestParam("query") String searchText) {
-        List<Project> projects = projectService.findProjectByNameOrDescription(searchText);
-        return ResponseEntity.ok(projects);
+    public ResponseEntity<?> searchProjects(@RequestParam("query") String searchText,
+                                            @RequestParam(value = "offset", defaultValue = "0") int offset,
+                                            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(projectService.searchProjects(searchText, Math.max(0, offset), pageSize));
     }
 
     /**
      * Обрабатывает PATCH-запрос на обновление проекта по идентификатору.
+     * Если передан заголовок If-Match с ETag версии проекта, а проект уже изменен,
+     * возвращается 412 Precondition Failed. Новый ETag возвращается в ответе.
      *
      * @param id идентификатор проекта для обновления
+     * @param ifMatch ETag версии проекта, которую видел клиент
      * @param project объект проекта с новыми данными
      * @param bindingResult результат валидации входных данных
-     * @return ResponseEntity с информацией о местоположении после успешного обновления
-     *         или список ошибок валидации в случае некорректных данных
+     * @return ResponseEntity с информацией о местоположении после успешного обновления,
+     *         список ошибок валидации в случае некорректных данных или статус 404, если проект не найден
      */
     @PatchMapping("/edit/{id}")
     public ResponseEntity<?> editProjectById(@PathVariable("id") Long id,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                              @Valid @RequestBody Project project,
                                              BindingResult bindingResult) {
         // Проверка ошибок валидации
@@ -68,9 +96,13 @@ public class ProjectControllerApi {
                     .collect(Collectors.toList());
             return ResponseEntity.badRequest().body(errors);
         }
+        Project updated = projectService.updateProjectById(id, project, ETags.parseIfMatch(ifMatch));
+        if (updated == null) {
+            return ResponseEntity.notFound().build();
+        }
         Map<String, Object> response = new HashMap<>();
         response.put("location", "/projects/managment");
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(ETags.ofVersion(updated.getVersion())).body(response);
     }
 
     /**
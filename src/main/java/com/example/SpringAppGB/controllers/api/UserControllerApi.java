@@ -2,16 +2,24 @@ package com.example.SpringAppGB.controllers.api;
 
 import com.example.SpringAppGB.model.Roles;
 import com.example.SpringAppGB.model.User;
+import com.example.SpringAppGB.model.DTO.KeysetPage;
 import com.example.SpringAppGB.model.DTO.UserDTO;
+import com.example.SpringAppGB.model.DTO.UserSuggestion;
 import com.example.SpringAppGB.repository.interfaces.UsersProjectRepository;
+import com.example.SpringAppGB.services.ChangeCounters;
+import com.example.SpringAppGB.services.UserImportService;
 import com.example.SpringAppGB.services.UserProjectService;
 import com.example.SpringAppGB.services.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.List;
@@ -29,16 +37,36 @@ public class UserControllerApi {
     private final UserService userService;
     private final UserProjectService userProjectService;
     private final UsersProjectRepository usersProjectRepository;
+    private final UserImportService userImportService;
+    private final ChangeCounters changeCounters;
+
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
 
     /**
-     * Метод обрабатывает GET-запрос на получение списока всех пользователей.
+     * Метод обрабатывает GET-запрос на получение списка пользователей постранично.
+     * Пользователи упорядочены по идентификатору; для получения следующей страницы
+     * передается параметр after, равный nextCursor предыдущего ответа.
+     * Ответ содержит ETag, построенный по счетчику изменений пользователей; если пользователи не менялись,
+     * на запрос с If-None-Match возвращается 304 без обращения к базе данных.
      *
-     * @return список всех пользователей в виде ответа HTTP.
+     * @param after идентификатор последнего пользователя предыдущей страницы.
+     * @param limit размер страницы (от 1 до 200).
+     * @param ifNoneMatch ETag ранее полученного ответа.
+     * @return страница пользователей и курсор следующей страницы в виде ответа HTTP.
      */
     @GetMapping("/get_all")
-    public ResponseEntity<List<User>> listUsers() {
-        List<User> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<KeysetPage<User>> listUsers(@RequestParam(value = "after", required = false) Long after,
+                                                      @RequestParam(value = "limit", defaultValue = "50") int limit,
+                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = changeCounters.etag(ChangeCounters.Scope.USERS);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok().eTag(etag).cacheControl(ETags.REVALIDATE)
+                .body(userService.getUsersPage(after, pageSize));
     }
 
     /**
@@ -53,17 +81,36 @@ public class UserControllerApi {
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * Метод обрабатывает GET-запрос на подсказки при вводе имени пользователя или адреса электронной почты.
+     * Сначала возвращаются совпадения по имени, затем по адресу электронной почты.
+     *
+     * @param prefix начало имени пользователя или адреса электронной почты без учета регистра.
+     * @param limit  максимальное количество подсказок (от 1 до 50).
+     * @return список подсказок с идентификатором, именем и адресом электронной почты.
+     */
+    @GetMapping("/typeahead")
+    public ResponseEntity<List<UserSuggestion>> typeahead(@RequestParam("prefix") String prefix,
+                                                          @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        int count = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        return ResponseEntity.ok(userService.suggestUsers(prefix.strip(), count));
+    }
+
     /**
      * Метод обрабатывает PATCH-запрос на обновление информации о пользователе по идентификатору.
+     * Если передан заголовок If-Match с ETag версии пользователя, а пользователь уже изменен,
+     * возвращается 412 Precondition Failed. Новый ETag возвращается в ответе.
      *
      * @param id     идентификатор пользователя для обновления
+     * @param ifMatch ETag версии пользователя, которую видел клиент
      * @param user   объект пользователя с новыми данными
      * @param bindingResult результат валидации входных данных
-     * @return ResponseEntity с информацией о местоположении после успешного обновления
-     *         или список ошибок валидации в случае некорректных данных
+     * @return ResponseEntity с информацией о местоположении после успешного обновления,
+     *         список ошибок валидации в случае некорректных данных или статус 404, если пользователь не найден
      */
     @PatchMapping("/edit/{id}")
     public ResponseEntity<?> editUser(@PathVariable("id") long id,
+                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                       @Valid @RequestBody User user,
                                       BindingResult bindingResult) {
         // Проверка ошибок валидации
@@ -73,10 +120,13 @@ public class UserControllerApi {
                     .collect(Collectors.toList());
             return ResponseEntity.badRequest().body(errors);
         }
-        userService.updateUser(id, user);
+        User updated = userService.updateUser(id, user, ETags.parseIfMatch(ifMatch));
+        if (updated == null) {
+            return ResponseEntity.notFound().build();
+        }
         Map<String, Object> response = new HashMap<>();
         response.put("location", "/users/managment");
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(ETags.ofVersion(updated.getVersion())).body(response);
     }
 
     /**
@@ -125,5 +175,21 @@ public class UserControllerApi {
         userService.addUser(user);
         return ResponseEntity.status(HttpStatus.CREATED).body(user);
     }
-}
 
+    /**
+     * Метод обрабатывает POST-запрос на массовый импорт пользователей из CSV или NDJSON.
+     * Тело запроса читается потоком; результат каждой строки (CREATED, INVALID, DUPLICATE или FAILED)
+     * возвращается в формате NDJSON по мере сохранения порций, не дожидаясь конца файла.
+     *
+     * @param contentType тип содержимого запроса: text/csv или application/x-ndjson.
+     * @param request     HTTP запрос, из тела которого читаются пользователи.
+     * @return поток результатов импорта строк в формате NDJSON.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<StreamingResponseBody> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                             HttpServletRequest request) {
+        UserImportService.Format format = UserImportService.Format.forMediaType(contentType);
+        return ResponseEntity.ok().contentType(NDJSON)
+                .body(out -> userImportService.importUsers(request.getInputStream(), format, out));
+    }
+}
@@ -1,17 +1,22 @@
 package com.example.SpringAppGB.controllers.api;
 
-import com.example.SpringAppGB.model.Project;
-import com.example.SpringAppGB.model.User;
+import com.example.SpringAppGB.model.DTO.MembershipDiff;
+import com.example.SpringAppGB.model.DTO.MembershipOutcome;
+import com.example.SpringAppGB.model.DTO.ProjectSummary;
+import com.example.SpringAppGB.model.DTO.UserSummary;
 import com.example.SpringAppGB.model.DTO.UserProjectRequest;
+import com.example.SpringAppGB.services.ChangeCounters;
 import com.example.SpringAppGB.services.ProjectService;
 import com.example.SpringAppGB.services.UserProjectService;
 import com.example.SpringAppGB.services.UserService;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST-контроллер для управления связями между пользователями и проектами.
@@ -26,40 +31,100 @@ public class UserProjectControllerApi {
     private final UserProjectService userProjectService;
     private final UserService userService;
     private final ProjectService projectService;
+    private final ChangeCounters changeCounters;
 
     /**
-     * Метод, обрабатывающий GET-запрос для получения списка пользователей, связанных с определенным проектом
+     * Метод, обрабатывающий GET-запрос для получения списка пользователей, связанных с определенным проектом.
+     * Ответ содержит ETag, построенный по счетчикам изменений пользователей, проектов и связей;
+     * если они не менялись, на запрос с If-None-Match возвращается 304 без обращения к базе данных.
+     *
      * @param projectId идентификатор проекта
+     * @param ifNoneMatch ETag ранее полученного ответа
      * @return ResponseEntity со списком пользователей или статус 404, если проект не найден
      */
     @GetMapping("/users_in_project")
-    public ResponseEntity<List<User>> getUsersByProjectId(@RequestParam(value="projectId",
-            defaultValue = "-1") Long projectId) {
+    public ResponseEntity<List<UserSummary>> getUsersByProjectId(@RequestParam(value="projectId",
+            defaultValue = "-1") Long projectId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         if (projectId == -1){
             return ResponseEntity.notFound().build();
         }
-        List<User> users = userProjectService.getUsersByProjectId(projectId);
+        String etag = membershipsEtag();
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+        List<UserSummary> users = userProjectService.getUsersByProjectId(projectId);
         if (users != null) {
-            return ResponseEntity.ok(users);
+            return ResponseEntity.ok().eTag(etag).cacheControl(ETags.REVALIDATE).body(users);
         }
         return ResponseEntity.notFound().build();
     }
 
     /**
-     * Метод, обрабатывающий GET-запрос для получения списка проектов, связанных с определенным пользователем
+     * Метод, обрабатывающий GET-запрос для получения списка проектов, связанных с определенным пользователем.
+     * Ответ содержит ETag, построенный по счетчикам изменений пользователей, проектов и связей;
+     * если они не менялись, на запрос с If-None-Match возвращается 304 без обращения к базе данных.
      *
      * @param userId идентификатор пользователя
+     * @param ifNoneMatch ETag ранее полученного ответа
      * @return ResponseEntity со списком проектов или статус 404, если пользователь не найден
      */
     @GetMapping("/user_projects")
-    public ResponseEntity<List<Project>> getProjectsByUserId(@RequestParam(value = "userId",
-            defaultValue = "-1") Long userId) {
+    public ResponseEntity<List<ProjectSummary>> getProjectsByUserId(@RequestParam(value = "userId",
+            defaultValue = "-1") Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         if (userId == -1){
             return ResponseEntity.notFound().build();
         }
-        List<Project> projects = userProjectService.getProjectsByUserId(userId);
+        String etag = membershipsEtag();
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+        List<ProjectSummary> projects = userProjectService.getProjectsByUserId(userId);
         if (projects != null) {
-            return ResponseEntity.ok(projects);
+            return ResponseEntity.ok().eTag(etag).cacheControl(ETags.REVALIDATE).body(projects);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    /**
+     * ETag списков участников и проектов: ответы зависят от пользователей, проектов и связей между ними.
+     */
+    private String membershipsEtag() {
+        return changeCounters.etag(ChangeCounters.Scope.USERS, ChangeCounters.Scope.PROJECTS,
+                ChangeCounters.Scope.MEMBERSHIPS);
+    }
+
+    /**
+     * Метод, обрабатывающий GET-запрос на получение участников проекта, которые не состоят в другом проекте
+     *
+     * @param projectId        идентификатор проекта
+     * @param excludeProjectId идентификатор проекта, участники которого исключаются
+     * @return ResponseEntity с идентификаторами пользователей или статус 404, если проект не найден
+     */
+    @GetMapping("/projects/{id}/members_not_in/{otherId}")
+    public ResponseEntity<List<Long>> getMembersNotInProject(@PathVariable("id") Long projectId,
+                                                             @PathVariable("otherId") Long excludeProjectId) {
+        List<Long> userIds = userProjectService.getMembersNotInProject(projectId, excludeProjectId);
+        if (userIds != null) {
+            return ResponseEntity.ok(userIds);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Метод, обрабатывающий GET-запрос на получение общих проектов двух пользователей
+     *
+     * @param userId      идентификатор первого пользователя
+     * @param otherUserId идентификатор второго пользователя
+     * @return ResponseEntity с идентификаторами проектов или статус 404, если пользователь не найден
+     */
+    @GetMapping("/users/{id}/common_projects/{otherId}")
+    public ResponseEntity<List<Long>> getCommonProjects(@PathVariable("id") Long userId,
+                                                        @PathVariable("otherId") Long otherUserId) {
+        List<Long> projectIds = userProjectService.getCommonProjects(userId, otherUserId);
+        if (projectIds != null) {
+            return ResponseEntity.ok(projectIds);
         }
         return ResponseEntity.notFound().build();
     }
@@ -68,10 +133,11 @@ public class UserProjectControllerApi {
      * Метод, обрабатывающий POST-запрос для добавления пользователя (списка пользователей) к проекту
      *
      * @param request объект запроса с идентификатором проекта и списком пользователей
-     * @return ResponseEntity с результатом операции
+     * @return ResponseEntity с результатом для каждого пользователя: ADDED, ALREADY_MEMBER или USER_NOT_FOUND;
+     *         статус 409, если ни один пользователь не был добавлен, и 404, если проект не найден
      */
     @PostMapping("/add_users_to_project")
-    public ResponseEntity<String> addUserToProject(@RequestBody(required = false) UserProjectRequest request) {
+    public ResponseEntity<?> addUserToProject(@RequestBody(required = false) UserProjectRequest request) {
         // Проверка на корректность входных данных
         if (request == null) {
             return ResponseEntity.badRequest()
@@ -81,11 +147,38 @@ public class UserProjectControllerApi {
             return ResponseEntity.badRequest()
                     .body("Invalid input data: projectId and userIds must not be null or empty.");
         }
-        boolean success = userProjectService.addUserToProject(request.getProjectId(), request.getUserIds());
-        return success
-                ? ResponseEntity.ok("Users added successfully.")
-                : ResponseEntity.status(HttpStatus.CONFLICT)
-                .body("Failed to add users: Duplicate entry or other conflict.");
+        Map<Long, MembershipOutcome> outcomes = userProjectService.addUsersToProject(request.getProjectId(),
+                request.getUserIds());
+        if (outcomes == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Failed to add users: No such project.");
+        }
+        return outcomes.containsValue(MembershipOutcome.ADDED)
+                ? ResponseEntity.ok(outcomes)
+                : ResponseEntity.status(HttpStatus.CONFLICT).body(outcomes);
+    }
+
+    /**
+     * Метод, обрабатывающий PUT-запрос на замену состава участников проекта.
+     * Тело запроса содержит полный желаемый список участников; сервер сам вычисляет,
+     * кого добавить и кого удалить, и применяет изменения в одной транзакции.
+     *
+     * @param projectId идентификатор проекта
+     * @param userIds   полный список идентификаторов участников проекта (пустой список удаляет всех участников)
+     * @return ResponseEntity со списками добавленных, удаленных и не найденных пользователей
+     *         или статус 404, если проект не найден
+     */
+    @PutMapping("/projects/{id}/members")
+    public ResponseEntity<?> syncProjectMembers(@PathVariable("id") Long projectId,
+                                                @RequestBody(required = false) List<Long> userIds) {
+        if (userIds == null) {
+            return ResponseEntity.badRequest()
+                    .body("Invalid input data: userIds must not be null.");
+        }
+        MembershipDiff diff = userProjectService.syncProjectMembers(projectId, userIds);
+        if (diff == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Failed to update members: No such project.");
+        }
+        return ResponseEntity.ok(diff);
     }
 
     /**
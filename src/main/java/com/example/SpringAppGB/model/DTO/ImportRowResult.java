@@ -0,0 +1,15 @@
+package com.example.SpringAppGB.model.DTO;
+
+import java.util.List;
+
+/**
+ * Результат импорта строки входного файла.
+ *
+ * @param line     номер строки во входном файле, начиная с 1
+ * @param userName имя пользователя из строки
+ * @param status   результат импорта
+ * @param id       ID созданного пользователя или null
+ * @param errors   ошибки проверки строки
+ */
+public record ImportRowResult(long line, String userName, ImportStatus status, Long id, List<String> errors) {
+}
@@ -0,0 +1,23 @@
+package com.example.SpringAppGB.model.DTO;
+
+/**
+ * Результат импорта одной строки с пользователем.
+ */
+public enum ImportStatus {
+    /**
+     * Пользователь создан.
+     */
+    CREATED,
+    /**
+     * Строка не прошла проверку и пропущена.
+     */
+    INVALID,
+    /**
+     * Пользователь с таким именем уже есть в базе или ранее в файле.
+     */
+    DUPLICATE,
+    /**
+     * Строка корректна, но порция строк не была сохранена из-за ошибки базы данных.
+     */
+    FAILED
+}
@@ -0,0 +1,47 @@
+package com.example.SpringAppGB.model.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Страница результатов при постраничной выборке по ключу (keyset pagination).
+ * Записи упорядочены по возрастанию идентификатора; следующая страница запрашивается
+ * с параметром after, равным nextCursor.
+ *
+ * @param <T> тип записей на странице
+ */
+@Data
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+    /**
+     * Записи текущей страницы.
+     */
+    private List<T> items;
+
+    /**
+     * Идентификатор последней записи страницы или null, если следующей страницы нет.
+     */
+    private Long nextCursor;
+
+    /**
+     * Формирует страницу из выборки, запрошенной с лимитом на одну запись больше размера страницы.
+     * Наличие лишней записи означает, что следующая страница существует.
+     *
+     * @param rows  выборка размером не более limit + 1
+     * @param limit размер страницы
+     * @param id    функция получения идентификатора записи
+     * @param <T>   тип записей
+     * @return страница результатов
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int limit, Function<T, Long> id) {
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new KeysetPage<>(List.copyOf(items), id.apply(items.get(limit - 1)));
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.SpringAppGB.model.DTO;
+
+import java.util.List;
+
+/**
+ * Изменения состава участников проекта, выполненные при синхронизации.
+ *
+ * @param added    ID добавленных пользователей
+ * @param removed  ID удаленных пользователей
+ * @param notFound ID пользователей из запроса, которых нет в базе
+ */
+public record MembershipDiff(List<Long> added, List<Long> removed, List<Long> notFound) {
+}
@@ -0,0 +1,22 @@
+package com.example.SpringAppGB.model.DTO;
+
+/**
+ * Результат добавления пользователя в проект.
+ */
+public enum MembershipOutcome {
+
+    /**
+     * Пользователь добавлен в проект.
+     */
+    ADDED,
+
+    /**
+     * Пользователь уже состоит в проекте.
+     */
+    ALREADY_MEMBER,
+
+    /**
+     * Пользователь с таким идентификатором не найден.
+     */
+    USER_NOT_FOUND
+}
@@ -0,0 +1,10 @@
+package com.example.SpringAppGB.model.DTO;
+
+/**
+ * Строка выгрузки участия пользователя в проекте.
+ *
+ * @param projectId идентификатор проекта
+ * @param userId    идентификатор пользователя
+ */
+public record MembershipRow(Long projectId, Long userId) {
+}
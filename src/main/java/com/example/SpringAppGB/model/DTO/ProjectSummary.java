@@ -0,0 +1,15 @@
+package com.example.SpringAppGB.model.DTO;
+
+import java.time.LocalDate;
+
+/**
+ * Краткие данные проекта для списков проектов пользователя.
+ * Не содержит связей проекта.
+ *
+ * @param id          идентификатор проекта
+ * @param name        название проекта
+ * @param description описание проекта
+ * @param createdDate дата создания проекта
+ */
+public record ProjectSummary(Long id, String name, String description, LocalDate createdDate) {
+}
@@ -0,0 +1,32 @@
+package com.example.SpringAppGB.model.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Страница результатов поиска, упорядоченных по релевантности.
+ * Следующая страница запрашивается с параметром offset, равным nextOffset.
+ *
+ * @param <T> тип записей на странице
+ */
+@Data
+@AllArgsConstructor
+public class SearchPage<T> {
+
+    /**
+     * Записи текущей страницы.
+     */
+    private List<T> items;
+
+    /**
+     * Общее количество найденных записей.
+     */
+    private int total;
+
+    /**
+     * Смещение следующей страницы или null, если следующей страницы нет.
+     */
+    private Integer nextOffset;
+}
@@ -0,0 +1,11 @@
+package com.example.SpringAppGB.model.DTO;
+
+/**
+ * Подсказка при вводе имени пользователя.
+ *
+ * @param id       идентификатор пользователя
+ * @param userName имя пользователя
+ * @param email    электронная почта пользователя
+ */
+public record UserSuggestion(Long id, String userName, String email) {
+}
@@ -0,0 +1,15 @@
+package com.example.SpringAppGB.model.DTO;
+
+import com.example.SpringAppGB.model.Roles;
+
+/**
+ * Краткие данные пользователя для списков участников проекта.
+ * Не содержит пароля и связей пользователя.
+ *
+ * @param id       идентификатор пользователя
+ * @param userName имя пользователя
+ * @param email    электронная почта пользователя
+ * @param role     роль пользователя
+ */
+public record UserSummary(Long id, String userName, String email, Roles role) {
+}
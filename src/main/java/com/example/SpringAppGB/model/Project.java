@@ -56,6 +56,14 @@ public class Project {
     @Column(name="created_date")
     private LocalDate createdDate;
 
+    /**
+     * Версия записи для оптимистической блокировки.
+     * Увеличивается при каждом изменении проекта и передается клиентам в ETag.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
 //    cascade = CascadeType.ALL: указывает Hibernate автоматически применять все каскадные операции
 //    к зависимым записям UsersProject, включая удаление.
 //    orphanRemoval = true: придает дополнительный эффект, удаляя "осиротевшие" записи,
@@ -30,7 +30,8 @@ public class User{
      * Содержит основную информацию о пользователе, включая имя пользователя, пароль, email и роль.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)  // Автоинкремент
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)  // Пакетные вставки
     private Long id;
 
     /**
@@ -72,6 +73,14 @@ public class User{
     @Column(nullable = false, length = 50)
     private Roles role;
 
+    /**
+     * Версия записи для оптимистической блокировки.
+     * Увеличивается при каждом изменении пользователя и передается клиентам в ETag.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
 //    cascade = CascadeType.ALL: указывает Hibernate автоматически применять все каскадные операции
 //    к зависимым записям UsersProject, включая удаление.
 //    orphanRemoval = true: придает дополнительный эффект, удаляя "осиротевшие" записи,
@@ -0,0 +1,29 @@
+package com.example.SpringAppGB.repository.interfaces;
+
+import java.util.List;
+
+/**
+ * Пакетные операции со связями пользователей и проектов, выполняемые через JDBC.
+ * Подключается к {@link UsersProjectRepository} как фрагмент репозитория.
+ */
+public interface MembershipBatchRepository {
+
+    /**
+     * Добавляет пользователей в проект пакетами команд MERGE.
+     * Связь вставляется, только если ее еще нет, поэтому повторное добавление не создает дубликатов.
+     *
+     * @param projectId ID проекта
+     * @param userIds   ID пользователей
+     * @return количество вставленных строк для каждого пользователя в порядке userIds (1 - добавлен, 0 - уже в проекте)
+     */
+    int[] mergeMemberships(Long projectId, List<Long> userIds);
+
+    /**
+     * Удаляет пользователей из проекта пакетами команд DELETE.
+     *
+     * @param projectId ID проекта
+     * @param userIds   ID пользователей
+     * @return количество удаленных строк
+     */
+    int deleteMemberships(Long projectId, List<Long> userIds);
+}
@@ -0,0 +1,76 @@
+package com.example.SpringAppGB.repository.interfaces;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Реализация пакетных операций со связями пользователей и проектов на JdbcTemplate.
+ * Команды выполняются в соединении текущей транзакции JPA и отправляются в базу пакетами.
+ * Дубликаты исключаются командой MERGE и уникальным индексом users_project (user_id, project_id).
+ */
+public class MembershipBatchRepositoryImpl implements MembershipBatchRepository {
+
+    private static final String MERGE_MEMBERSHIP_SQL =
+            "MERGE INTO users_project t " +
+            "USING (SELECT CAST(? AS BIGINT) AS project_id, CAST(? AS BIGINT) AS user_id) s " +
+            "ON t.project_id = s.project_id AND t.user_id = s.user_id " +
+            "WHEN NOT MATCHED THEN INSERT (related_entity_id, project_id, user_id) " +
+            "VALUES (s.project_id, s.project_id, s.user_id)";
+
+    private static final String DELETE_MEMBERSHIP_SQL =
+            "DELETE FROM users_project WHERE project_id = ? AND user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    /**
+     * Создает репозиторий пакетных операций.
+     *
+     * @param jdbcTemplate JdbcTemplate источника данных приложения
+     * @param batchSize    количество команд в одном пакете
+     */
+    public MembershipBatchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                         @Value("${membership.batch_size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public int[] mergeMemberships(Long projectId, List<Long> userIds) {
+        int[] inserted = new int[userIds.size()];
+        if (userIds.isEmpty()) {
+            return inserted;
+        }
+        int[][] batches = jdbcTemplate.batchUpdate(MERGE_MEMBERSHIP_SQL, userIds, batchSize, (ps, userId) -> {
+            ps.setLong(1, projectId);
+            ps.setLong(2, userId);
+        });
+        int i = 0;
+        for (int[] batch : batches) {
+            for (int count : batch) {
+                inserted[i++] = count;
+            }
+        }
+        return inserted;
+    }
+
+    @Override
+    public int deleteMemberships(Long projectId, List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        int[][] batches = jdbcTemplate.batchUpdate(DELETE_MEMBERSHIP_SQL, userIds, batchSize, (ps, userId) -> {
+            ps.setLong(1, projectId);
+            ps.setLong(2, userId);
+        });
+        int deleted = 0;
+        for (int[] batch : batches) {
+            for (int count : batch) {
+                deleted += count;
+            }
+        }
+        return deleted;
+    }
+}
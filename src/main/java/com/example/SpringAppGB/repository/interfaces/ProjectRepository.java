@@ -1,13 +1,18 @@
 package com.example.SpringAppGB.repository.interfaces;
 
+import com.example.SpringAppGB.model.DTO.ProjectSummary;
 import com.example.SpringAppGB.model.Project;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для работы с сущностью Project.
@@ -16,21 +21,42 @@ import java.util.List;
  */
 public interface ProjectRepository extends JpaRepository<Project, Long> {
 
-    @Query("SELECT p FROM Project p " +
-            "WHERE LOWER (p.name) LIKE LOWER(CONCAT('%', :name, '%')) " +
-            "OR LOWER(p.description) LIKE LOWER(CONCAT('%', :description, '%'))")
-    List<Project> searchProjectByNameOrDescription(@Param("name") String name , @Param("description") String description);
+    /**
+     * Возвращает краткие данные проекта по идентификатору без загрузки сущности.
+     *
+     * @param id идентификатор проекта
+     * @return краткие данные проекта
+     */
+    @Query("SELECT new com.example.SpringAppGB.model.DTO.ProjectSummary(p.id, p.name, p.description, p.createdDate) " +
+            "FROM Project p WHERE p.id = :id")
+    Optional<ProjectSummary> findSummaryById(@Param("id") Long id);
+
+    /**
+     * Возвращает проекты с идентификатором больше указанного в порядке возрастания идентификатора.
+     * Используется для постраничной выборки по ключу: выборка идет по первичному ключу без OFFSET.
+     *
+     * @param id    идентификатор последнего проекта предыдущей страницы
+     * @param limit максимальное количество проектов
+     * @return список проектов
+     */
+    List<Project> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 
     /**
-     * Обновляет данные проекта по его идентификатору.
+     * Возвращает все проекты потоком в порядке возрастания идентификатора.
+     * Строки читаются из курсора порциями по 500, сущности загружаются только для чтения.
+     * Поток должен закрываться и использоваться внутри транзакции.
      *
-     * @param id идентификатор проекта, который необходимо обновить.
-     * @param project объект проекта, содержащий обновленные данные.
+     * @return поток проектов
      */
-    @Modifying
-    @Query("UPDATE Project p SET p.name = :#{#project.name}, " +
-            "p.description = :#{#project.description}, " +
-            "p.createdDate = :#{#project.createdDate} " +
-            "WHERE p.id = :id")
-    void updateProjectById(@Param("id") Long id, Project project);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Project p ORDER BY p.id")
+    Stream<Project> streamAll();
+
+    @Query("SELECT p FROM Project p " +
+            "WHERE LOWER (p.name) LIKE LOWER(CONCAT('%', :name, '%')) " +
+            "OR LOWER(p.description) LIKE LOWER(CONCAT('%', :description, '%'))")
+    List<Project> searchProjectByNameOrDescription(@Param("name") String name , @Param("description") String description);
 }
@@ -1,15 +1,19 @@
 package com.example.SpringAppGB.repository.interfaces;
 
+import com.example.SpringAppGB.model.DTO.UserSummary;
 import com.example.SpringAppGB.model.User;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для работы с сущностью User.
@@ -20,26 +24,72 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUserName(String username);
 
-    @Query("SELECT u FROM User u " +
-            "WHERE LOWER(u.userName) LIKE LOWER(CONCAT('%', :username, '%')) OR " +
-            "LOWER(u.email) LIKE LOWER(CONCAT('%', :email, '%'))")
-    List<User> findUserByUserNameOrEmail(@Param("username") String userName, @Param("email") String email);
+    /**
+     * Возвращает краткие данные пользователя по идентификатору без загрузки сущности.
+     *
+     * @param id идентификатор пользователя
+     * @return краткие данные пользователя
+     */
+    @Query("SELECT new com.example.SpringAppGB.model.DTO.UserSummary(u.id, u.userName, u.email, u.role) " +
+            "FROM User u WHERE u.id = :id")
+    Optional<UserSummary> findSummaryById(@Param("id") Long id);
 
     /**
-     * Обновляет данные пользователя по его идентификатору.
+     * Возвращает краткие данные пользователя по имени без загрузки сущности.
      *
-     * Данный метод также удаляет кэшированные данные пользователей,
-     * чтобы обеспечить актуальность информации.
+     * @param userName имя пользователя
+     * @return краткие данные пользователя
+     */
+    @Query("SELECT new com.example.SpringAppGB.model.DTO.UserSummary(u.id, u.userName, u.email, u.role) " +
+            "FROM User u WHERE u.userName = :userName")
+    Optional<UserSummary> findSummaryByUserName(@Param("userName") String userName);
+
+    /**
+     * Возвращает имена из переданного списка, которые уже заняты пользователями.
      *
-     * @param id идентификатор пользователя, которого необходимо обновить.
-     * @param user объект пользователя, содержащий обновленные данные.
+     * @param userNames проверяемые имена пользователей
+     * @return занятые имена
      */
-    @Modifying
-    @CacheEvict(value = "users", key = "#id")
-    @Query("UPDATE User u SET u.userName = :#{#user.userName}, " +
-            "u.email = :#{#user.email}, " +
-            "u.role = :#{#user.role} " +
-            "WHERE u.id = :id")
-    void updateUserById(@Param("id") Long id, User user);
+    @Query("SELECT u.userName FROM User u WHERE u.userName IN :userNames")
+    List<String> findExistingUserNames(@Param("userNames") Collection<String> userNames);
 
+    /**
+     * Возвращает пользователей с идентификатором больше указанного в порядке возрастания идентификатора.
+     * Используется для постраничной выборки по ключу: выборка идет по первичному ключу без OFFSET.
+     *
+     * @param id    идентификатор последнего пользователя предыдущей страницы
+     * @param limit максимальное количество пользователей
+     * @return список пользователей
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Возвращает всех пользователей потоком в порядке возрастания идентификатора.
+     * Строки читаются из курсора порциями по 500, сущности загружаются только для чтения.
+     * Поток должен закрываться и использоваться внутри транзакции.
+     *
+     * @return поток пользователей
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    Stream<User> streamAll();
+
+    /**
+     * Находит пользователей, у которых имя или адрес электронной почты в нижнем регистре подходит под шаблон.
+     * Сравнение идет по вычисляемым столбцам user_name_lower и email_lower; каждая ветка UNION
+     * читает свой индекс, поэтому шаблон вида "префикс%" не приводит к полному просмотру таблицы.
+     *
+     * @param pattern шаблон LIKE в нижнем регистре, символ экранирования - '\'
+     * @return список пользователей, упорядоченный по имени
+     */
+    @Query(value = "SELECT id, user_name, password, email, role, version FROM users " +
+            "WHERE user_name_lower LIKE :pattern ESCAPE '\\' " +
+            "UNION " +
+            "SELECT id, user_name, password, email, role, version FROM users " +
+            "WHERE email_lower LIKE :pattern ESCAPE '\\' " +
+            "ORDER BY user_name", nativeQuery = true)
+    List<User> findUserByUserNameOrEmail(@Param("pattern") String pattern);
 }
@@ -1,65 +1,84 @@
 package com.example.SpringAppGB.repository.interfaces;
 
-import com.example.SpringAppGB.model.Project;
-import com.example.SpringAppGB.model.User;
+import com.example.SpringAppGB.model.DTO.MembershipRow;
+import com.example.SpringAppGB.model.DTO.ProjectSummary;
+import com.example.SpringAppGB.model.DTO.UserSummary;
 import com.example.SpringAppGB.model.UsersProject;
-import jakarta.transaction.Transactional;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для управления связями между пользователями и проектами.
  * Предоставляет методы для выполнения операций с сущностью UsersProject,
  * а также специфические запросы для работы со связями пользователей и проектов.
+ * Пакетное добавление связей реализовано фрагментом {@link MembershipBatchRepository}.
  */
-public interface UsersProjectRepository extends JpaRepository<UsersProject, Long> {
+public interface UsersProjectRepository extends JpaRepository<UsersProject, Long>, MembershipBatchRepository {
 
     /**
      * Находит всех пользователей, связанных с конкретным проектом.
+     * Выбираются только отображаемые столбцы, сущности User не создаются и пароль не читается.
      *
      * @param projectId ID проекта
-     * @return список пользователей, связанных с данным проектом
+     * @return краткие данные пользователей, связанных с данным проектом
      */
-    @Query("SELECT up.user FROM UsersProject up WHERE up.project.id = :projectId")
-    List<User> findUsersByProjectId(@Param("projectId") Long projectId);
+    @Query("SELECT new com.example.SpringAppGB.model.DTO.UserSummary(u.id, u.userName, u.email, u.role) " +
+            "FROM UsersProject up JOIN up.user u WHERE up.project.id = :projectId ORDER BY u.id")
+    List<UserSummary> findUsersByProjectId(@Param("projectId") Long projectId);
 
     /**
      * Находит все проекты, связанные с конкретным пользователем.
+     * Выбираются только отображаемые столбцы, сущности Project не создаются.
      *
      * @param userId ID пользователя
-     * @return список проектов, связанных с данным пользователем
+     * @return краткие данные проектов, связанных с данным пользователем
      */
-    @Query("SELECT up.project FROM UsersProject up WHERE up.user.id = :userId")
-    List<Project> findProjectsByUserId(@Param("userId") Long userId);
+    @Query("SELECT new com.example.SpringAppGB.model.DTO.ProjectSummary(p.id, p.name, p.description, p.createdDate) " +
+            "FROM UsersProject up JOIN up.project p WHERE up.user.id = :userId ORDER BY p.id")
+    List<ProjectSummary> findProjectsByUserId(@Param("userId") Long userId);
 
     /**
-     * Находит всех пользователей в таблице Users, которые отсутствуют в списке ID пользователей.
+     * Находит пользователей, которые не состоят в проекте, в порядке возрастания идентификатора.
+     * Членство проверяется подзапросом NOT EXISTS поиском по составному индексу связей, поэтому запрос
+     * не зависит от размера проекта. Выборка идет страницами по ключу: следующая страница начинается
+     * после идентификатора последнего пользователя предыдущей.
      *
-     * @param userIds список ID пользователей для исключения
-     * @return список пользователей, не связанных с указанными ID
+     * @param projectId ID проекта
+     * @param after     ID последнего пользователя предыдущей страницы (0 для первой страницы)
+     * @param pattern   шаблон LIKE в нижнем регистре для имени или адреса электронной почты
+     *                  (символ экранирования - '\') или null без фильтра
+     * @param limit     максимальное количество пользователей
+     * @return краткие данные пользователей, не связанных с проектом
      */
-    @Query("SELECT u FROM User u WHERE u.id NOT IN :userIds")
-    List<User> findUsersNotInProject(@Param("userIds") List<Long> userIds);
+    @Query("SELECT new com.example.SpringAppGB.model.DTO.UserSummary(u.id, u.userName, u.email, u.role) " +
+            "FROM User u WHERE u.id > :after " +
+            "AND NOT EXISTS (SELECT 1 FROM UsersProject up WHERE up.project.id = :projectId AND up.user.id = u.id) " +
+            "AND (:pattern IS NULL OR LOWER(u.userName) LIKE :pattern ESCAPE '\\' " +
+            "OR LOWER(u.email) LIKE :pattern ESCAPE '\\') " +
+            "ORDER BY u.id")
+    List<UserSummary> findUsersNotInProject(@Param("projectId") Long projectId,
+                                            @Param("after") Long after,
+                                            @Param("pattern") String pattern,
+                                            Limit limit);
 
     /**
-     * Добавляет пользователя в проект.
+     * Возвращает идентификаторы существующих пользователей из переданного набора одним запросом.
      *
-     * @param relatedEntityId ID связанной сущности
-     * @param projectId       ID проекта
-     * @param userId          ID пользователя
-     * @return количество затронутых строк (должно быть 1 при успешном выполнении)
+     * @param userIds ID пользователей для проверки
+     * @return ID пользователей, которые есть в базе
      */
-    @Modifying
-    @Transactional
-    @Query(value = "INSERT INTO users_project (related_entity_id, user_id, project_id) " +
-            "VALUES (:relatedEntityId, :userId, :projectId)", nativeQuery = true)
-    int addUsersToProject(@Param("relatedEntityId") Long relatedEntityId,
-                          @Param("projectId") Long projectId,
-                          @Param("userId") Long userId);
+    @Query("SELECT u.id FROM User u WHERE u.id IN :userIds")
+    List<Long> findExistingUserIds(@Param("userIds") Collection<Long> userIds);
 
     /**
      * Удаляет пользователя из проекта.
@@ -75,11 +94,13 @@ public interface UsersProjectRepository extends JpaRepository<UsersProject, Long
                                @Param("projectId") Long projectId);
 
     /**
-     * Проверяет существование записей в таблице по указанным пользователю и проекту.
+     * Возвращает все связи пользователей и проектов потоком идентификаторов без загрузки сущностей.
+     * Поток должен закрываться и использоваться внутри транзакции.
      *
-     * @param userId    ID пользователя
-     * @param projectId ID проекта
-     * @return true, если связь существует; иначе false
+     * @return поток пар (проект, пользователь)
      */
-    boolean existsByUserIdAndProjectId(Long userId, Long projectId);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.SpringAppGB.model.DTO.MembershipRow(up.project.id, up.user.id) " +
+            "FROM UsersProject up ORDER BY up.id")
+    Stream<MembershipRow> streamMemberships();
 }
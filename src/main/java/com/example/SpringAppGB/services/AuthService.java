@@ -1,30 +1,47 @@
 package com.example.SpringAppGB.services;
 
 import com.example.SpringAppGB.Authorization.services.JwtTokenProvider;
+import com.example.SpringAppGB.Authorization.model.JwtPrincipal;
+import com.example.SpringAppGB.Authorization.services.RefreshTokenStore;
+import com.example.SpringAppGB.Authorization.services.TokenRevocationList;
+import com.example.SpringAppGB.Authorization.services.VerifiedTokenCache;
 import com.example.SpringAppGB.Exceptions.AppErrors;
 import com.example.SpringAppGB.model.DTO.JwtRequest;
 import com.example.SpringAppGB.services.Interfaces.AuthServiceInterface;
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * Сервис для аутентификации пользователей и генерации JWT токена.
  * Выполняет проверку учетных данных, генерацию токена и настройку cookie с токеном.
+ * Проверка пароля выполняется в отдельном пуле потоков через {@link LoginAuthenticator}.
+ * Вместе с JWT токеном выдается токен обновления, по которому новый JWT токен
+ * выдается без повторной проверки пароля. При выходе JWT токен отзывается через {@link TokenRevocationList}.
  */
 @Service
 @AllArgsConstructor
 public class AuthService implements AuthServiceInterface {
     private final UserService userService;
     private final JwtTokenProvider jwtTokenProvider;
-    private final AuthenticationManager authenticationManager;
+    private final LoginAuthenticator loginAuthenticator;
+    private final RefreshTokenStore refreshTokenStore;
+    private final UserDetailsCache userDetailsCache;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationList tokenRevocationList;
+
+    private static final String JWT_COOKIE = "jwt";
+    private static final String REFRESH_COOKIE = "refresh_token";
+    private static final String REFRESH_COOKIE_PATH = "/auth";
 
     /**
      * Создает JWT токен для пользователя после успешной аутентификации.
@@ -36,27 +53,126 @@ public class AuthService implements AuthServiceInterface {
 
     @Override
     public ResponseEntity<?> createAuthToken(JwtRequest user, HttpServletResponse response) {
+        Authentication authentication;
         try {
-            authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(user.getUserName(),
-                    user.getPassword()));
+            authentication = loginAuthenticator.authenticate(user.getUserName(), user.getPassword());
 
         } catch (BadCredentialsException e) {
             return new ResponseEntity<>(new AppErrors(HttpStatus.UNAUTHORIZED.value(),
                     "Некорректные данные пользователя"),
                     HttpStatus.UNAUTHORIZED);
         }
-        UserDetails userDetails = userService.loadUserByUsername(user.getUserName());
+        // Данные пользователя уже загружены провайдером аутентификации (из UserDetailsCache или из базы)
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        issueTokens(userDetails, refreshTokenStore.issue(userDetails.getUsername()), response);
+        return redirectByRole(userDetails);
+    }
+
+    /**
+     * Выдает новый JWT токен по токену обновления из cookie без проверки пароля.
+     * Токен обновления одноразовый: взамен предъявленного выдается новый.
+     *
+     * @param request  {@link HttpServletRequest} с cookie токена обновления.
+     * @param response {@link HttpServletResponse} для добавления cookie с новыми токенами.
+     * @return {@link ResponseEntity} с перенаправлением на страницу в зависимости от роли пользователя
+     * или с ошибкой 401, если токен обновления недействителен.
+     */
+    @Override
+    public ResponseEntity<?> refreshAuthToken(HttpServletRequest request, HttpServletResponse response) {
+        RefreshTokenStore.Rotation rotation = refreshTokenStore.rotate(getCookieValue(request, REFRESH_COOKIE));
+        if (rotation == null) {
+            return unauthorized("Токен обновления недействителен");
+        }
+        UserDetails userDetails = userDetailsCache.getUserFromCache(rotation.username());
+        if (userDetails == null) {
+            try {
+                userDetails = userService.loadUserByUsername(rotation.username());
+            } catch (UsernameNotFoundException e) {
+                refreshTokenStore.revoke(rotation.refreshToken());
+                return unauthorized("Пользователь не найден");
+            }
+            userDetailsCache.putUserInCache(userDetails);
+        }
+        if (!userDetails.isEnabled() || !userDetails.isAccountNonLocked()) {
+            refreshTokenStore.revoke(rotation.refreshToken());
+            return unauthorized("Учетная запись заблокирована");
+        }
+        issueTokens(userDetails, rotation.refreshToken(), response);
+        return redirectByRole(userDetails);
+    }
+
+    /**
+     * Выполняет выход пользователя: отзывает JWT токен до истечения его срока,
+     * отзывает токен обновления и удаляет cookie с токенами.
+     *
+     * @param request  {@link HttpServletRequest} с JWT токеном и токеном обновления.
+     * @param response {@link HttpServletResponse} для удаления cookie.
+     * @return {@link ResponseEntity} с перенаправлением на страницу входа.
+     */
+    @Override
+    public ResponseEntity<?> logout(HttpServletRequest request, HttpServletResponse response) {
+        String token = jwtTokenProvider.getJwtFromCookies(request);
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ") && authHeader.length() > 7) {
+            token = authHeader.substring(7);
+        }
+        if (token != null) {
+            try {
+                JwtPrincipal principal = verifiedTokenCache.get(token, jwtTokenProvider::verifyAndExtract);
+                tokenRevocationList.revoke(principal.tokenId(), principal.expiresAt());
+                verifiedTokenCache.invalidate(token);
+            } catch (JWTVerificationException e) {
+                // Недействительный токен отзывать не нужно
+            }
+        }
+        refreshTokenStore.revoke(getCookieValue(request, REFRESH_COOKIE));
+        response.addCookie(createCookie(JWT_COOKIE, "", "/", 0));
+        response.addCookie(createCookie(REFRESH_COOKIE, "", REFRESH_COOKIE_PATH, 0));
+        return ResponseEntity.ok().header("Location", "/auth/login").build();
+    }
+
+    /**
+     * Устанавливает cookie с JWT токеном и токеном обновления.
+     * Cookie токена обновления отправляется браузером только на эндпоинты авторизации.
+     *
+     * @param userDetails  данные пользователя
+     * @param refreshToken токен обновления
+     * @param response     ответ для добавления cookie
+     */
+    private void issueTokens(UserDetails userDetails, String refreshToken, HttpServletResponse response) {
         String jwtToken = jwtTokenProvider.generateJwtToken(userDetails);
+        // Установка токенов в HttpOnly cookie
+        response.addCookie(createCookie(JWT_COOKIE, jwtToken, "/", 60 * 60 * 24)); // Время жизни cookie 1 день
+        response.addCookie(createCookie(REFRESH_COOKIE, refreshToken, REFRESH_COOKIE_PATH,
+                (int) refreshTokenStore.getRefreshLifetime().toSeconds()));
+    }
 
-        // Установка токена в HttpOnly cookie
-        Cookie cookie = new Cookie("jwt", jwtToken);
+    private Cookie createCookie(String name, String value, String path, int maxAge) {
+        Cookie cookie = new Cookie(name, value);
         cookie.setHttpOnly(true); // Запрещаем доступ к cookie через JavaScript
         cookie.setSecure(false); // Убедитесь, что cookie передается только через HTTPS при параметре True
-        cookie.setPath("/"); // Устанавливаем путь доступности cookie
-        cookie.setMaxAge(60 * 60 * 24); // Устанавливаем время жизни cookie (1 день)
+        cookie.setPath(path); // Устанавливаем путь доступности cookie
+        cookie.setMaxAge(maxAge); // Устанавливаем время жизни cookie
+        return cookie;
+    }
+
+    private String getCookieValue(HttpServletRequest request, String name) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (name.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
 
-        response.addCookie(cookie);
+    private ResponseEntity<?> unauthorized(String message) {
+        return new ResponseEntity<>(new AppErrors(HttpStatus.UNAUTHORIZED.value(), message), HttpStatus.UNAUTHORIZED);
+    }
 
+    private ResponseEntity<?> redirectByRole(UserDetails userDetails) {
         // Проверка роли пользователя
         if (userDetails.getAuthorities().stream().anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN"))) {
             // Если роль "ADMIN", перенаправляем на страницу для админов
@@ -65,8 +181,5 @@ public class AuthService implements AuthServiceInterface {
             // Если роль обычного пользователя, перенаправляем на страницу для пользователей
             return ResponseEntity.ok().header("Location", "/user/profile").build();
         }
-
     }
-
-
 }
@@ -0,0 +1,88 @@
+package com.example.SpringAppGB.services;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Счетчики изменений коллекций пользователей, проектов и связей между ними.
+ * Счетчик коллекции увеличивается после фиксации каждой транзакции, изменившей коллекцию,
+ * поэтому по значениям счетчиков можно построить ETag списка, не загружая сами записи.
+ * ETag включает время запуска приложения: после перезапуска счетчики начинаются заново,
+ * и ранее выданные ETag перестают совпадать.
+ */
+@Component
+public class ChangeCounters {
+
+    /**
+     * Отслеживаемая коллекция.
+     */
+    public enum Scope {
+        USERS,
+        PROJECTS,
+        MEMBERSHIPS
+    }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final Map<Scope, AtomicLong> counters = new EnumMap<>(Scope.class);
+
+    public ChangeCounters() {
+        for (Scope scope : Scope.values()) {
+            counters.put(scope, new AtomicLong());
+        }
+    }
+
+    /**
+     * Отмечает изменение коллекции. Внутри транзакции счетчик увеличивается после ее фиксации,
+     * чтобы новое значение ETag не выдавалось вместе с еще не зафиксированными данными; при откате не меняется.
+     * Вне транзакции счетчик увеличивается сразу.
+     *
+     * @param scopes измененные коллекции
+     */
+    public void changed(Scope... scopes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(scopes);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                increment(scopes);
+            }
+        });
+    }
+
+    private void increment(Scope... scopes) {
+        for (Scope scope : scopes) {
+            counters.get(scope).incrementAndGet();
+        }
+    }
+
+    /**
+     * Возвращает текущее значение счетчика коллекции.
+     *
+     * @param scope коллекция
+     * @return количество зафиксированных изменений с момента запуска
+     */
+    public long get(Scope scope) {
+        return counters.get(scope).get();
+    }
+
+    /**
+     * Строит строгий ETag для ответа, который зависит от указанных коллекций.
+     *
+     * @param scopes коллекции, из которых формируется ответ
+     * @return ETag в кавычках
+     */
+    public String etag(Scope... scopes) {
+        StringBuilder etag = new StringBuilder("\"").append(epoch);
+        for (Scope scope : scopes) {
+            etag.append('-').append(get(scope));
+        }
+        return etag.append('"').toString();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.SpringAppGB.services;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Применяет изменения, выполненные вне базы данных (например, в индексах в памяти), после фиксации текущей транзакции.
+ * До фиксации изменения не видны другим запросам, а при откате транзакции просто отбрасываются.
+ * Перед фиксацией берется общая блокировка, которая отпускается после применения изменений, поэтому изменения
+ * разных транзакций применяются в том же порядке, в котором транзакции фиксируются в базе данных.
+ * Вне транзакции изменения применяются сразу.
+ */
+@Component
+public class CommitActions {
+
+    private final EntityManager entityManager;
+    private final ReentrantLock commitLock = new ReentrantLock();
+
+    public CommitActions(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Регистрирует изменение, которое выполняется после фиксации текущей транзакции.
+     * Изменения одного владельца в транзакции применяются вместе под его блокировкой записи.
+     *
+     * @param owner     владелец изменений; у каждого владельца своя очередь в транзакции
+     * @param writeLock блокировка записи владельца
+     * @param change    изменение
+     */
+    @SuppressWarnings("unchecked")
+    public void afterCommit(Object owner, Lock writeLock, Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(writeLock, List.of(change));
+            return;
+        }
+        List<Runnable> changes = (List<Runnable>) TransactionSynchronizationManager.getResource(owner);
+        if (changes == null) {
+            lockCommitOrder();
+            List<Runnable> newChanges = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(owner, newChanges);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(writeLock, newChanges);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(owner);
+                }
+            });
+            changes = newChanges;
+        }
+        changes.add(change);
+    }
+
+    /**
+     * Один раз в транзакции регистрирует взятие общей блокировки перед фиксацией и ее снятие после применения изменений.
+     * Отложенные команды JPA сбрасываются до взятия блокировки: иначе они выполнились бы при фиксации,
+     * и транзакция ждала бы блокировок строк, удерживая общую блокировку.
+     */
+    private void lockCommitOrder() {
+        if (TransactionSynchronizationManager.hasResource(commitLock)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(commitLock, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (entityManager.isJoinedToTransaction()) {
+                    entityManager.flush();
+                }
+                commitLock.lock();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(commitLock);
+                if (commitLock.isHeldByCurrentThread()) {
+                    commitLock.unlock();
+                }
+            }
+        });
+    }
+
+    private static void apply(Lock writeLock, List<Runnable> changes) {
+        writeLock.lock();
+        try {
+            changes.forEach(Runnable::run);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
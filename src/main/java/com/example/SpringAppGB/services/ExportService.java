@@ -0,0 +1,130 @@
+package com.example.SpringAppGB.services;
+
+import com.example.SpringAppGB.repository.interfaces.ProjectRepository;
+import com.example.SpringAppGB.repository.interfaces.UserRepository;
+import com.example.SpringAppGB.repository.interfaces.UsersProjectRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Сервис потоковой выгрузки пользователей, проектов и их связей в формате NDJSON (одна JSON-запись на строку).
+ * Записи читаются из курсора базы данных и сразу пишутся в выходной поток, поэтому потребление памяти
+ * не зависит от размера таблиц: контекст персистентности очищается после каждой порции записей.
+ */
+@Service
+@Slf4j
+public class ExportService {
+
+    private static final byte NEWLINE = '\n';
+
+    private final UserRepository userRepository;
+    private final ProjectRepository projectRepository;
+    private final UsersProjectRepository usersProjectRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter objectWriter;
+    private final int chunkSize;
+
+    /**
+     * Создает сервис выгрузки.
+     *
+     * @param userRepository         репозиторий пользователей
+     * @param projectRepository      репозиторий проектов
+     * @param usersProjectRepository репозиторий связей пользователей и проектов
+     * @param entityManager          общий EntityManager текущей транзакции
+     * @param transactionManager     менеджер транзакций для чтения внутри потока ответа
+     * @param objectMapper           сериализатор JSON приложения
+     * @param chunkSize              количество записей, после которого очищается контекст персистентности
+     */
+    public ExportService(UserRepository userRepository,
+                         ProjectRepository projectRepository,
+                         UsersProjectRepository usersProjectRepository,
+                         EntityManager entityManager,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         @Value("${export.chunk_size:1000}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.projectRepository = projectRepository;
+        this.usersProjectRepository = usersProjectRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectWriter = objectMapper.writer();
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Выгружает всех пользователей в формате NDJSON.
+     *
+     * @param out выходной поток
+     * @return количество выгруженных записей
+     */
+    public long writeUsers(OutputStream out) {
+        return write(out, userRepository::streamAll);
+    }
+
+    /**
+     * Выгружает все проекты в формате NDJSON.
+     *
+     * @param out выходной поток
+     * @return количество выгруженных записей
+     */
+    public long writeProjects(OutputStream out) {
+        return write(out, projectRepository::streamAll);
+    }
+
+    /**
+     * Выгружает все связи пользователей и проектов в формате NDJSON.
+     *
+     * @param out выходной поток
+     * @return количество выгруженных записей
+     */
+    public long writeMemberships(OutputStream out) {
+        return write(out, usersProjectRepository::streamMemberships);
+    }
+
+    /**
+     * Читает записи из потока репозитория внутри транзакции только для чтения и пишет их построчно.
+     * Транзакция открывается здесь, а не в контроллере, потому что тело ответа пишется
+     * в отдельном потоке после выхода из метода контроллера.
+     *
+     * @param out    выходной поток
+     * @param source метод репозитория, возвращающий поток записей
+     * @param <T>    тип записей
+     * @return количество выгруженных записей
+     */
+    private <T> long write(OutputStream out, Supplier<Stream<T>> source) {
+        Long written = transactionTemplate.execute(status -> {
+            long count = 0;
+            try (Stream<T> stream = source.get()) {
+                Iterator<T> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    out.write(objectWriter.writeValueAsBytes(iterator.next()));
+                    out.write(NEWLINE);
+                    if (++count % chunkSize == 0) {
+                        entityManager.clear(); // Отпускаем уже выгруженные сущности
+                    }
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return count;
+        });
+        log.debug("Exported {} records", written);
+        return written != null ? written : 0;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.SpringAppGB.services;
+
+import com.example.SpringAppGB.Exceptions.LoginOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Сервис проверки учетных данных при входе пользователя.
+ * Проверка пароля (BCrypt) выполняется в отдельном ограниченном пуле потоков loginExecutor,
+ * а не в потоке Tomcat. Если очередь пула заполнена, запрос отклоняется исключением
+ * {@link LoginOverloadedException}, которое превращается в ответ 429 с заголовком Retry-After.
+ * Время проверки публикуется в метрике auth.login.hash, число отклоненных запросов - в auth.login.rejected.
+ */
+@Service
+public class LoginAuthenticator {
+
+    private final AuthenticationManager authenticationManager;
+    private final ThreadPoolExecutor loginExecutor;
+    private final Duration retryAfter;
+    private final Timer hashTimer;
+    private final Counter rejectedCounter;
+
+    public LoginAuthenticator(AuthenticationManager authenticationManager,
+                              @Qualifier("loginExecutor") ThreadPoolExecutor loginExecutor,
+                              @Value("${auth.login.retry_after:1s}") Duration retryAfter,
+                              MeterRegistry meterRegistry) {
+        this.authenticationManager = authenticationManager;
+        this.loginExecutor = loginExecutor;
+        this.retryAfter = retryAfter;
+        this.hashTimer = Timer.builder("auth.login.hash")
+                .description("Time spent verifying user credentials")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.login.rejected")
+                .description("Login attempts rejected because the login queue is full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Проверяет имя пользователя и пароль в пуле потоков проверки паролей.
+     *
+     * @param username имя пользователя
+     * @param password пароль
+     * @return результат успешной аутентификации
+     * @throws org.springframework.security.core.AuthenticationException если учетные данные неверны
+     * @throws LoginOverloadedException если очередь проверки паролей заполнена
+     */
+    public Authentication authenticate(String username, String password) {
+        UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(username, password);
+        Future<Authentication> future;
+        try {
+            future = loginExecutor.submit(() -> hashTimer.record(() -> authenticationManager.authenticate(token)));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new LoginOverloadedException(Math.max(1, retryAfter.toSeconds()));
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Login failed", e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Login interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.SpringAppGB.services;
+
+import com.example.SpringAppGB.model.DTO.MembershipRow;
+import com.example.SpringAppGB.repository.interfaces.UsersProjectRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Индекс связей пользователей и проектов в памяти на сжатых битовых картах (Roaring).
+ * Для каждого проекта хранится битовая карта идентификаторов участников, для каждого пользователя -
+ * битовая карта идентификаторов его проектов. Проверка членства сводится к проверке бита,
+ * а вопросы вида "пользователи проекта A, которых нет в проекте B" и "общие проекты двух пользователей" -
+ * к операциям над битовыми картами без обращения к базе данных.
+ * Индекс строится при старте и обновляется сервисами {@link UserProjectService}, {@link UserService}
+ * и {@link ProjectService} при изменении связей. Изменения применяются после фиксации транзакции через
+ * {@link CommitActions} в порядке фиксации, поэтому индекс содержит только зафиксированные связи,
+ * и проверка по нему равносильна чтению зафиксированных данных из базы.
+ * Идентификаторы хранятся как int, поэтому должны помещаться в диапазон int.
+ * Размер индекса публикуется в метриках "membership.index.*".
+ */
+@Component
+@Slf4j
+public class MembershipIndex {
+
+    private final UsersProjectRepository usersProjectRepository;
+    private final CommitActions commitActions;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, RoaringBitmap> usersByProject = new HashMap<>();
+    private final Map<Integer, RoaringBitmap> projectsByUser = new HashMap<>();
+
+    /**
+     * Создает пустой индекс и регистрирует его метрики.
+     *
+     * @param usersProjectRepository репозиторий связей для построения индекса
+     * @param commitActions          применение изменений после фиксации транзакции
+     * @param transactionManager     менеджер транзакций для чтения связей при старте
+     * @param meterRegistry          реестр метрик приложения
+     */
+    public MembershipIndex(UsersProjectRepository usersProjectRepository,
+                           CommitActions commitActions,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.usersProjectRepository = usersProjectRepository;
+        this.commitActions = commitActions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        Gauge.builder("membership.index.projects", this, index -> index.read(index.usersByProject::size))
+                .description("Number of projects with members in the membership index")
+                .register(meterRegistry);
+        Gauge.builder("membership.index.bytes", this, index -> index.read(index::sizeInBytes))
+                .description("Serialized size of the membership bitmaps")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Строит индекс по всем связям, читая их потоком из базы данных.
+     */
+    @PostConstruct
+    public void rebuild() {
+        long start = System.nanoTime();
+        Map<Integer, RoaringBitmap> byProject = new HashMap<>();
+        Map<Integer, RoaringBitmap> byUser = new HashMap<>();
+        long count = transactionTemplate.execute(status -> {
+            long rows = 0;
+            try (Stream<MembershipRow> memberships = usersProjectRepository.streamMemberships()) {
+                for (Iterator<MembershipRow> it = memberships.iterator(); it.hasNext(); rows++) {
+                    MembershipRow row = it.next();
+                    int projectId = toInt(row.projectId());
+                    int userId = toInt(row.userId());
+                    byProject.computeIfAbsent(projectId, id -> new RoaringBitmap()).add(userId);
+                    byUser.computeIfAbsent(userId, id -> new RoaringBitmap()).add(projectId);
+                }
+            }
+            return rows;
+        });
+        byProject.values().forEach(RoaringBitmap::runOptimize);
+        byUser.values().forEach(RoaringBitmap::runOptimize);
+
+        lock.writeLock().lock();
+        try {
+            usersByProject.clear();
+            usersByProject.putAll(byProject);
+            projectsByUser.clear();
+            projectsByUser.putAll(byUser);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Membership index built: {} memberships in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Проверяет, состоит ли пользователь в проекте.
+     *
+     * @param userId    идентификатор пользователя
+     * @param projectId идентификатор проекта
+     * @return true, если пользователь состоит в проекте
+     */
+    public boolean isMember(Long userId, Long projectId) {
+        return read(() -> {
+            RoaringBitmap members = usersByProject.get(toInt(projectId));
+            return members != null && members.contains(toInt(userId));
+        });
+    }
+
+    /**
+     * Возвращает идентификаторы участников проекта в порядке возрастания.
+     *
+     * @param projectId идентификатор проекта
+     * @return идентификаторы пользователей
+     */
+    public List<Long> getMemberIds(Long projectId) {
+        return read(() -> toIds(usersByProject.get(toInt(projectId))));
+    }
+
+    /**
+     * Возвращает участников одного проекта, которые не состоят в другом.
+     *
+     * @param projectId        идентификатор проекта, участники которого выбираются
+     * @param excludeProjectId идентификатор проекта, участники которого исключаются
+     * @return идентификаторы пользователей в порядке возрастания
+     */
+    public List<Long> getMembersNotIn(Long projectId, Long excludeProjectId) {
+        return read(() -> {
+            RoaringBitmap members = usersByProject.get(toInt(projectId));
+            RoaringBitmap excluded = usersByProject.get(toInt(excludeProjectId));
+            if (members == null || excluded == null) {
+                return toIds(members);
+            }
+            return toIds(RoaringBitmap.andNot(members, excluded));
+        });
+    }
+
+    /**
+     * Возвращает общие проекты двух пользователей.
+     *
+     * @param userId      идентификатор первого пользователя
+     * @param otherUserId идентификатор второго пользователя
+     * @return идентификаторы проектов в порядке возрастания
+     */
+    public List<Long> getCommonProjectIds(Long userId, Long otherUserId) {
+        return read(() -> {
+            RoaringBitmap projects = projectsByUser.get(toInt(userId));
+            RoaringBitmap otherProjects = projectsByUser.get(toInt(otherUserId));
+            if (projects == null || otherProjects == null) {
+                return List.of();
+            }
+            return toIds(RoaringBitmap.and(projects, otherProjects));
+        });
+    }
+
+    /**
+     * Добавляет пользователей в проект после фиксации текущей транзакции.
+     *
+     * @param projectId идентификатор проекта
+     * @param userIds   идентификаторы пользователей
+     */
+    public void add(Long projectId, Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        int project = toInt(projectId);
+        RoaringBitmap users = toBitmap(userIds);
+        commitActions.afterCommit(this, lock.writeLock(), () -> users.forEach((int user) -> {
+            usersByProject.computeIfAbsent(project, id -> new RoaringBitmap()).add(user);
+            projectsByUser.computeIfAbsent(user, id -> new RoaringBitmap()).add(project);
+        }));
+    }
+
+    /**
+     * Удаляет пользователей из проекта после фиксации текущей транзакции.
+     *
+     * @param projectId идентификатор проекта
+     * @param userIds   идентификаторы пользователей
+     */
+    public void remove(Long projectId, Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        int project = toInt(projectId);
+        RoaringBitmap users = toBitmap(userIds);
+        commitActions.afterCommit(this, lock.writeLock(), () -> removeAll(project, users));
+    }
+
+    /**
+     * Удаляет все связи проекта после фиксации текущей транзакции, например при удалении проекта.
+     *
+     * @param projectId идентификатор проекта
+     */
+    public void removeProject(Long projectId) {
+        int project = toInt(projectId);
+        commitActions.afterCommit(this, lock.writeLock(), () -> {
+            RoaringBitmap members = usersByProject.get(project);
+            if (members != null) {
+                removeAll(project, members.clone());
+            }
+        });
+    }
+
+    /**
+     * Удаляет все связи пользователя после фиксации текущей транзакции, например при удалении пользователя.
+     *
+     * @param userId идентификатор пользователя
+     */
+    public void removeUser(Long userId) {
+        int user = toInt(userId);
+        commitActions.afterCommit(this, lock.writeLock(), () -> {
+            RoaringBitmap projects = projectsByUser.get(user);
+            if (projects != null) {
+                RoaringBitmap users = RoaringBitmap.bitmapOf(user);
+                projects.clone().forEach((int project) -> removeAll(project, users));
+            }
+        });
+    }
+
+    /**
+     * Удаляет пользователей из проекта под блокировкой записи.
+     *
+     */
+    private void removeAll(int project, RoaringBitmap users) {
+        RoaringBitmap members = usersByProject.get(project);
+        if (members == null) {
+            return;
+        }
+        RoaringBitmap removed = RoaringBitmap.and(members, users);
+        members.andNot(removed);
+        if (members.isEmpty()) {
+            usersByProject.remove(project);
+        }
+        removed.forEach((int user) -> {
+            RoaringBitmap projects = projectsByUser.get(user);
+            projects.remove(project);
+            if (projects.isEmpty()) {
+                projectsByUser.remove(user);
+            }
+        });
+    }
+
+    private long sizeInBytes() {
+        long bytes = 0;
+        for (RoaringBitmap bitmap : usersByProject.values()) {
+            bytes += bitmap.serializedSizeInBytes();
+        }
+        for (RoaringBitmap bitmap : projectsByUser.values()) {
+            bytes += bitmap.serializedSizeInBytes();
+        }
+        return bytes;
+    }
+
+    private <T> T read(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static RoaringBitmap toBitmap(Collection<Long> ids) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        ids.forEach(id -> bitmap.add(toInt(id)));
+        return bitmap;
+    }
+
+    private static List<Long> toIds(RoaringBitmap bitmap) {
+        if (bitmap == null) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(bitmap.getCardinality());
+        bitmap.forEach((int id) -> ids.add((long) id));
+        return ids;
+    }
+
+    private static int toInt(Long id) {
+        return Math.toIntExact(id);
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.SpringAppGB.services;
+
+import com.example.SpringAppGB.model.Project;
+import com.example.SpringAppGB.repository.interfaces.ProjectRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Инвертированный индекс триграмм по названию и описанию проектов в памяти.
+ * Для запроса длиной от трех символов кандидаты выбираются пересечением списков проектов
+ * по всем триграммам запроса, затем у кандидатов проверяется вхождение подстроки,
+ * поэтому результат совпадает с поиском LIKE '%запрос%' без сканирования таблицы.
+ * Индекс строится при старте и обновляется сервисом {@link ProjectService} при изменении проектов.
+ * Изменения применяются после фиксации транзакции через {@link CommitActions}, поэтому поиск не находит
+ * незафиксированные проекты, а изменения откаченной транзакции в индекс не попадают.
+ * Размер индекса и время запросов публикуются в метриках "projects.search.*".
+ */
+@Component
+@Slf4j
+public class ProjectSearchIndex {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final int NAME_MATCH_SCORE = 4;
+    private static final int NAME_PREFIX_SCORE = 2;
+    private static final int DESCRIPTION_MATCH_SCORE = 1;
+
+    private final ProjectRepository projectRepository;
+    private final CommitActions commitActions;
+    private final Timer queryTimer;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<Long, Set<Long>> postings = new HashMap<>(); // триграмма -> идентификаторы проектов
+
+    /**
+     * Проиндексированный текст проекта в нижнем регистре.
+     *
+     * @param name        название проекта
+     * @param description описание проекта
+     */
+    private record Document(String name, String description) {
+    }
+
+    /**
+     * Создает пустой индекс и регистрирует его метрики.
+     *
+     * @param projectRepository репозиторий проектов для построения индекса
+     * @param commitActions     применение изменений после фиксации транзакции
+     * @param meterRegistry     реестр метрик приложения
+     */
+    public ProjectSearchIndex(ProjectRepository projectRepository, CommitActions commitActions,
+                              MeterRegistry meterRegistry) {
+        this.projectRepository = projectRepository;
+        this.commitActions = commitActions;
+        this.queryTimer = Timer.builder("projects.search.query")
+                .description("Project search latency")
+                .register(meterRegistry);
+        Gauge.builder("projects.search.index.documents", this, index -> index.read(index.documents::size))
+                .description("Number of projects in the search index")
+                .register(meterRegistry);
+        Gauge.builder("projects.search.index.trigrams", this, index -> index.read(index.postings::size))
+                .description("Number of distinct trigrams in the search index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Строит индекс по всем проектам, читая их порциями по первичному ключу.
+     */
+    @PostConstruct
+    public void rebuild() {
+        long start = System.nanoTime();
+        Map<Long, Document> loaded = new HashMap<>();
+        long after = 0L;
+        List<Project> batch;
+        do {
+            batch = projectRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(LOAD_BATCH_SIZE));
+            for (Project project : batch) {
+                loaded.put(project.getId(), toDocument(project));
+                after = project.getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            loaded.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Project search index built: {} projects in {} ms",
+                loaded.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Добавляет проект в индекс или обновляет его текст.
+     *
+     * @param project проект с идентификатором
+     */
+    public void index(Project project) {
+        Long id = project.getId();
+        Document document = toDocument(project);
+        commitActions.afterCommit(this, lock.writeLock(), () -> {
+            remove(id);
+            put(id, document);
+        });
+    }
+
+    /**
+     * Удаляет проект из индекса.
+     *
+     * @param projectId идентификатор проекта
+     */
+    public void delete(Long projectId) {
+        commitActions.afterCommit(this, lock.writeLock(), () -> remove(projectId));
+    }
+
+    /**
+     * Ищет проекты, у которых название или описание содержит строку запроса без учета регистра.
+     * Результаты упорядочены по релевантности: совпадение в начале названия, затем в названии,
+     * затем в описании; при равной релевантности - по идентификатору.
+     *
+     * @param query строка запроса
+     * @return идентификаторы найденных проектов в порядке релевантности
+     */
+    public List<Long> search(String query) {
+        return queryTimer.record(() -> read(() -> rank(query.toLowerCase(Locale.ROOT))));
+    }
+
+    private List<Long> rank(String query) {
+        Collection<Long> candidates = query.length() < 3 ? documents.keySet() : candidates(query);
+        List<long[]> scored = new ArrayList<>();
+        for (Long id : candidates) {
+            int score = score(documents.get(id), query);
+            if (score > 0) {
+                scored.add(new long[]{id, score});
+            }
+        }
+        scored.sort(Comparator.<long[]>comparingLong(entry -> -entry[1]).thenComparingLong(entry -> entry[0]));
+        List<Long> result = new ArrayList<>(scored.size());
+        scored.forEach(entry -> result.add(entry[0]));
+        return result;
+    }
+
+    /**
+     * Пересекает списки проектов по всем триграммам запроса, начиная с самого короткого.
+     */
+    private Collection<Long> candidates(String query) {
+        List<Set<Long>> lists = new ArrayList<>();
+        for (long trigram : trigrams(query)) {
+            Set<Long> list = postings.get(trigram);
+            if (list == null) {
+                return List.of();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private static int score(Document document, String query) {
+        int score = 0;
+        if (document.name().contains(query)) {
+            score += NAME_MATCH_SCORE;
+            if (document.name().startsWith(query)) {
+                score += NAME_PREFIX_SCORE;
+            }
+        }
+        if (document.description().contains(query)) {
+            score += DESCRIPTION_MATCH_SCORE;
+        }
+        return score;
+    }
+
+    private void put(Long id, Document document) {
+        documents.put(id, document);
+        for (long trigram : documentTrigrams(document)) {
+            postings.computeIfAbsent(trigram, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    private Document remove(Long id) {
+        Document document = documents.remove(id);
+        if (document != null) {
+            for (long trigram : documentTrigrams(document)) {
+                Set<Long> list = postings.get(trigram);
+                if (list != null && list.remove(id) && list.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+        return document;
+    }
+
+    private <T> T read(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Document toDocument(Project project) {
+        return new Document(
+                project.getName() != null ? project.getName().toLowerCase(Locale.ROOT) : "",
+                project.getDescription() != null ? project.getDescription().toLowerCase(Locale.ROOT) : "");
+    }
+
+    private static Set<Long> documentTrigrams(Document document) {
+        Set<Long> trigrams = trigrams(document.name());
+        trigrams.addAll(trigrams(document.description()));
+        return trigrams;
+    }
+
+    /**
+     * Возвращает триграммы строки, упакованные в long (по 16 бит на символ).
+     */
+    private static Set<Long> trigrams(String text) {
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return trigrams;
+    }
+}
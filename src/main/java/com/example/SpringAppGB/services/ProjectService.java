@@ -1,31 +1,54 @@
 package com.example.SpringAppGB.services;
 
+import com.example.SpringAppGB.model.DTO.KeysetPage;
+import com.example.SpringAppGB.model.DTO.ProjectSummary;
+import com.example.SpringAppGB.model.DTO.SearchPage;
 import com.example.SpringAppGB.model.Project;
 import com.example.SpringAppGB.repository.interfaces.ProjectRepository;
+import com.example.SpringAppGB.config.CacheConfig;
 import lombok.AllArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Сервис для управления проектами.
  * Предоставляет методы для работы с пользователями в системе.
+ * Поиск проектов выполняется по индексу {@link ProjectSearchIndex}, который сервис обновляет при изменении проектов.
+ * Краткие данные проектов по идентификатору кэшируются; запись кэша удаляется при изменении и удалении проекта.
+ * Изменения проектов отмечаются в счетчике {@link ChangeCounters}, по которому строятся ETag списков.
  */
 @Service
 @AllArgsConstructor
 public class ProjectService {
 
     private final ProjectRepository projectRepository;
+    private final ProjectSearchIndex projectSearchIndex;
+    private final MembershipIndex membershipIndex;
+    private final ChangeCounters changeCounters;
 
     /**
-     * Метод для добавления нового проекта
+     * Метод для добавления нового проекта.
+     * Индекс поиска и счетчик изменений обновляются после фиксации транзакции добавления.
      *
      * @param project проект для добавления
      * @return
      */
+    @Transactional
     public Project addProject(Project project){
+        project.setVersion(null); // Версию назначает база данных, иначе проект не считается новым
         projectRepository.save(project);
+        projectSearchIndex.index(project);
+        changeCounters.changed(ChangeCounters.Scope.PROJECTS);
         return project;
     }
 
@@ -38,16 +61,73 @@ public class ProjectService {
     }
 
     /**
-     * Метод для поиска проекта по идентификатору
+     * Метод для получения страницы проектов, упорядоченных по идентификатору
+     * @param after идентификатор последнего проекта предыдущей страницы или null для первой страницы
+     * @param limit размер страницы
+     * @return страница проектов с курсором следующей страницы
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Project> getProjectsPage(Long after, int limit){
+        List<Project> rows = projectRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after : 0L, Limit.of(limit + 1));
+        return KeysetPage.of(rows, limit, Project::getId);
+    }
+
+    /**
+     * Метод для поиска проекта по идентификатору для изменения (например, в форме редактирования).
+     * Сущность не кэшируется: для чтения используется {@link #getProjectSummaryById(Long)}.
      * @param projectId идентификатор проекта
-     * @return проект или выбрасывает исключение, если не найден
+     * @return проект или null, если не найден
      */
     public Project findProjectById(Long projectId){
         return projectRepository.findById(projectId).orElse(null);
     }
 
+    /**
+     * Метод для получения кратких данных проекта по идентификатору.
+     * В общем кэше хранятся неизменяемые данные без ленивой коллекции участников, а не сущность.
+     * @param projectId идентификатор проекта
+     * @return краткие данные проекта или null, если не найден
+     */
+    @Cacheable(value = CacheConfig.PROJECTS, key = "#projectId", unless = "#result == null")
+    public ProjectSummary getProjectSummaryById(Long projectId){
+        return projectRepository.findSummaryById(projectId).orElse(null);
+    }
+
+    /**
+     * Метод для поиска всех проектов, у которых название или описание содержит строку поиска
+     * @param searchString строка поиска
+     * @return список проектов в порядке релевантности
+     */
     public List<Project> findProjectByNameOrDescription(String searchString){
-        return projectRepository.searchProjectByNameOrDescription(searchString, searchString);
+        return loadInOrder(projectSearchIndex.search(searchString));
+    }
+
+    /**
+     * Метод для постраничного поиска проектов по названию или описанию
+     * @param searchString строка поиска
+     * @param offset смещение первой записи страницы
+     * @param limit размер страницы
+     * @return страница проектов в порядке релевантности
+     */
+    public SearchPage<Project> searchProjects(String searchString, int offset, int limit){
+        List<Long> ids = projectSearchIndex.search(searchString);
+        int from = Math.min(offset, ids.size());
+        int to = Math.min(from + limit, ids.size());
+        Integer nextOffset = to < ids.size() ? to : null;
+        return new SearchPage<>(loadInOrder(ids.subList(from, to)), ids.size(), nextOffset);
+    }
+
+    /**
+     * Загружает проекты по идентификаторам одним запросом с сохранением порядка идентификаторов.
+     * Проекты, которых уже нет в базе данных, пропускаются.
+     */
+    private List<Project> loadInOrder(List<Long> ids){
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Project> projects = projectRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Project::getId, Function.identity()));
+        return ids.stream().map(projects::get).filter(Objects::nonNull).toList();
     }
 
     /**
@@ -55,18 +135,33 @@ public class ProjectService {
      *
      * Этот метод извлекает проект по идентификатору,
      * обновляет его свойства и сохраняет изменения в репозитории.
+     * Версия проекта проверяется дважды: с ожидаемой версией клиента и при записи в базу данных,
+     * чтобы не перезаписать изменение из параллельной транзакции.
      *
      * @param projectId идентификатор проекта, который необходимо обновить.
      * @param project объект проекта, содержащий обновленные данные.
+     * @param expectedVersion версия проекта, которую видел клиент, или null, если версия не проверяется.
+     * @return обновленный проект с новой версией или null, если проект не найден.
+     * @throws OptimisticLockingFailureException если версия проекта отличается от ожидаемой.
      */
     @Transactional
-    public void updateProjectById(Long projectId, Project project){
+    @CacheEvict(value = CacheConfig.PROJECTS, key = "#projectId")
+    public Project updateProjectById(Long projectId, Project project, Long expectedVersion){
         Project projectUpdate = findProjectById(projectId);
+        if (projectUpdate == null) {
+            return null;
+        }
+        if (expectedVersion != null && !expectedVersion.equals(projectUpdate.getVersion())) {
+            throw new OptimisticLockingFailureException("Project " + projectId + " has version "
+                    + projectUpdate.getVersion() + ", expected " + expectedVersion);
+        }
         projectUpdate.setName(project.getName());
         projectUpdate.setDescription(project.getDescription());
         projectUpdate.setCreatedDate(project.getCreatedDate());
-        projectRepository.updateProjectById(projectId, projectUpdate);
-        projectRepository.flush();
+        projectRepository.saveAndFlush(projectUpdate);
+        projectSearchIndex.index(projectUpdate);
+        changeCounters.changed(ChangeCounters.Scope.PROJECTS);
+        return projectUpdate;
     }
 
     /**
@@ -75,7 +170,11 @@ public class ProjectService {
      * @param projectId Идентификатор проекта, который нужно удалить.
      */
     @Transactional
+    @CacheEvict(value = CacheConfig.PROJECTS, key = "#projectId")
     public void deleteProjectById(Long projectId){
         projectRepository.deleteById(projectId);
+        projectSearchIndex.delete(projectId);
+        membershipIndex.removeProject(projectId); // Связи проекта удаляются каскадно
+        changeCounters.changed(ChangeCounters.Scope.PROJECTS, ChangeCounters.Scope.MEMBERSHIPS);
     }
 }
@@ -0,0 +1,104 @@
+package com.example.SpringAppGB.services;
+
+import com.example.SpringAppGB.Authorization.model.AppUserDetails;
+import com.example.SpringAppGB.config.CacheConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Ограниченный кэш данных пользователей для аутентификации с временем жизни записей.
+ * Подключается к DaoAuthenticationProvider, чтобы при входе не выполнять запрос findByUserName
+ * для уже загруженных пользователей. Записи удаляются сервисом {@link UserService} при изменении,
+ * удалении и добавлении пользователей. Статистика кэша публикуется в метриках под именем "auth.user_details".
+ */
+@Component
+public class UserDetailsCache implements UserCache {
+
+    private final Cache<String, UserDetails> cache;
+
+    /**
+     * Создает кэш и регистрирует его метрики.
+     *
+     * @param maxSize       максимальное количество пользователей в кэше
+     * @param ttl           время жизни записи
+     * @param meterRegistry реестр метрик приложения
+     */
+    public UserDetailsCache(@Value("${auth.user_cache.max_size:10000}") long maxSize,
+                            @Value("${auth.user_cache.ttl:5m}") Duration ttl,
+                            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.user_details", CacheConfig.CACHE_MANAGER_TAG, "none");
+    }
+
+    /**
+     * Возвращает копию данных пользователя из кэша.
+     * Копия нужна, потому что Spring Security стирает пароль у объекта,
+     * ставшего principal после успешной аутентификации.
+     *
+     * @param username имя пользователя
+     * @return данные пользователя или null, если их нет в кэше
+     */
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        UserDetails user = cache.getIfPresent(username);
+        return user != null ? copy(user) : null;
+    }
+
+    /**
+     * Сохраняет копию данных пользователя в кэш.
+     *
+     * @param user данные пользователя
+     */
+    @Override
+    public void putUserInCache(UserDetails user) {
+        cache.put(user.getUsername(), copy(user));
+    }
+
+    /**
+     * Удаляет данные пользователя из кэша. Внутри транзакции запись удаляется после ее фиксации,
+     * как в кэшах Spring с учетом транзакций: иначе параллельный вход до фиксации загрузил бы
+     * из базы прежние данные пользователя и снова поместил их в кэш. Вне транзакции запись удаляется сразу.
+     *
+     * @param username имя пользователя
+     */
+    @Override
+    public void removeUserFromCache(String username) {
+        if (username == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidate(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidate(username);
+            }
+        });
+    }
+
+    private UserDetails copy(UserDetails user) {
+        if (user instanceof AppUserDetails appUserDetails) {
+            // User.withUserDetails не сохраняет идентификатор пользователя
+            return new AppUserDetails(appUserDetails.getId(), user.getUsername(), user.getPassword(),
+                    user.getAuthorities());
+        }
+        return User.withUserDetails(user).build();
+    }
+}
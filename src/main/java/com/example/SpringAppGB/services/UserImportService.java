@@ -0,0 +1,400 @@
+package com.example.SpringAppGB.services;
+
+import com.example.SpringAppGB.model.DTO.ImportRowResult;
+import com.example.SpringAppGB.model.DTO.ImportStatus;
+import com.example.SpringAppGB.model.DTO.UserDTO;
+import com.example.SpringAppGB.model.Roles;
+import com.example.SpringAppGB.model.User;
+import com.example.SpringAppGB.repository.interfaces.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Сервис массового импорта пользователей из CSV или NDJSON.
+ * Входной поток читается порциями по import.batch_size строк, поэтому потребление памяти не зависит от размера файла.
+ * Для каждой порции строки проверяются, пароли хешируются параллельно в пуле passwordHashExecutor,
+ * а новые пользователи вставляются в отдельной транзакции пакетами JDBC.
+ * Результат каждой строки сразу пишется в выходной поток в формате NDJSON.
+ * Количество обработанных строк по результатам публикуется в метрике "users.import.rows",
+ * длительность сохранения порции - в метрике "users.import.chunk".
+ */
+@Service
+@Slf4j
+public class UserImportService {
+
+    private static final byte NEWLINE = '\n';
+    private static final String CSV_HEADER = "username"; // Первая колонка строки заголовка CSV
+
+    /**
+     * Формат входного файла.
+     */
+    public enum Format {
+        /**
+         * Строки вида userName,password,email,role; первая строка может быть заголовком.
+         */
+        CSV,
+        /**
+         * JSON-объект с полями userName, password, email и role на каждой строке.
+         */
+        NDJSON;
+
+        /**
+         * Определяет формат по типу содержимого запроса.
+         *
+         * @param mediaType тип содержимого
+         * @return формат входного файла
+         * @throws IllegalArgumentException если тип содержимого не поддерживается
+         */
+        public static Format forMediaType(MediaType mediaType) {
+            if (mediaType.isCompatibleWith(MediaType.parseMediaType("text/csv"))) {
+                return CSV;
+            }
+            if (mediaType.isCompatibleWith(MediaType.parseMediaType("application/x-ndjson"))) {
+                return NDJSON;
+            }
+            throw new IllegalArgumentException("Unsupported import content type: " + mediaType);
+        }
+    }
+
+    /**
+     * Строка входного файла, ожидающая сохранения.
+     *
+     * @param line   номер строки
+     * @param user   данные пользователя или null, если строку не удалось разобрать
+     * @param errors ошибки разбора и проверки строки
+     */
+    private record PendingRow(long line, UserDTO user, List<String> errors) {
+    }
+
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final Executor passwordHashExecutor;
+    private final UserDetailsCache userDetailsCache;
+    private final UserTypeaheadIndex userTypeaheadIndex;
+    private final ChangeCounters changeCounters;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter objectWriter;
+    private final Validator validator;
+    private final Map<ImportStatus, Counter> rowCounters = new EnumMap<>(ImportStatus.class);
+    private final Timer chunkTimer;
+    private final int batchSize;
+
+    /**
+     * Создает сервис импорта.
+     *
+     * @param userRepository       репозиторий пользователей
+     * @param entityManager        общий EntityManager текущей транзакции
+     * @param transactionManager   менеджер транзакций для сохранения порций
+     * @param passwordEncoder      кодировщик паролей
+     * @param passwordHashExecutor пул потоков для хеширования паролей
+     * @param userDetailsCache     кэш данных пользователей для аутентификации
+     * @param userTypeaheadIndex   индекс подсказок пользователей
+     * @param changeCounters       счетчики изменений коллекций
+     * @param objectMapper         сериализатор JSON приложения
+     * @param validator            валидатор Bean Validation приложения
+     * @param meterRegistry        реестр метрик приложения
+     * @param batchSize            количество строк в порции
+     */
+    public UserImportService(UserRepository userRepository,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             PasswordEncoder passwordEncoder,
+                             @Qualifier("passwordHashExecutor") ThreadPoolExecutor passwordHashExecutor,
+                             UserDetailsCache userDetailsCache,
+                             UserTypeaheadIndex userTypeaheadIndex,
+                             ChangeCounters changeCounters,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             MeterRegistry meterRegistry,
+                             @Value("${import.batch_size:500}") int batchSize) {
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashExecutor = passwordHashExecutor;
+        this.userDetailsCache = userDetailsCache;
+        this.userTypeaheadIndex = userTypeaheadIndex;
+        this.changeCounters = changeCounters;
+        this.objectMapper = objectMapper;
+        this.objectWriter = objectMapper.writer();
+        this.validator = validator;
+        for (ImportStatus status : ImportStatus.values()) {
+            rowCounters.put(status, Counter.builder("users.import.rows")
+                    .description("Imported user rows by result")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+        }
+        this.chunkTimer = Timer.builder("users.import.chunk")
+                .description("Time to hash passwords and insert one chunk of imported users")
+                .register(meterRegistry);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Импортирует пользователей из входного потока и пишет результат каждой строки в формате NDJSON.
+     * Пустые строки пропускаются. Каждая порция сохраняется в своей транзакции: при ошибке базы данных
+     * строки порции получают статус FAILED, а импорт продолжается со следующей порции.
+     *
+     * @param in     входной поток в кодировке UTF-8
+     * @param format формат входного файла
+     * @param out    выходной поток для результатов строк
+     * @return количество строк по результатам импорта
+     */
+    public Map<ImportStatus, Long> importUsers(InputStream in, Format format, OutputStream out) {
+        Map<ImportStatus, Long> totals = new EnumMap<>(ImportStatus.class);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            List<PendingRow> chunk = new ArrayList<>(batchSize);
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && format == Format.CSV && isCsvHeader(line))) {
+                    continue;
+                }
+                chunk.add(parse(lineNumber, line, format));
+                if (chunk.size() == batchSize) {
+                    write(out, processChunk(chunk), totals);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                write(out, processChunk(chunk), totals);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("User import finished: {}", totals);
+        return totals;
+    }
+
+    /**
+     * Разбирает строку входного файла и проверяет данные пользователя.
+     *
+     * @param lineNumber номер строки
+     * @param line       строка
+     * @param format     формат входного файла
+     * @return строка с данными пользователя и ошибками проверки
+     */
+    private PendingRow parse(long lineNumber, String line, Format format) {
+        UserDTO user;
+        try {
+            user = format == Format.CSV ? parseCsv(line) : parseJson(line);
+        } catch (JsonProcessingException e) {
+            return new PendingRow(lineNumber, null, List.of("Malformed line: " + e.getOriginalMessage()));
+        } catch (IllegalArgumentException e) {
+            return new PendingRow(lineNumber, null, List.of("Malformed line: " + e.getMessage()));
+        }
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<UserDTO> violation : validator.validate(user)) {
+            errors.add(violation.getMessage());
+        }
+        if (parseRole(user.getRole()) == null) {
+            errors.add("Unknown role: " + user.getRole());
+        }
+        return new PendingRow(lineNumber, user, errors);
+    }
+
+    private UserDTO parseJson(String line) throws JsonProcessingException {
+        JsonNode node = objectMapper.readTree(line);
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("JSON object expected");
+        }
+        return new UserDTO(node.path("userName").asText(null),
+                node.path("password").asText(null),
+                node.path("email").asText(null),
+                node.path("role").asText(null));
+    }
+
+    private UserDTO parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() < 2 || fields.size() > 4) {
+            throw new IllegalArgumentException("expected userName,password[,email[,role]]");
+        }
+        String email = fields.size() > 2 && !fields.get(2).isEmpty() ? fields.get(2) : null;
+        String role = fields.size() > 3 && !fields.get(3).isEmpty() ? fields.get(3) : Roles.ROLE_USER.name();
+        return new UserDTO(fields.get(0), fields.get(1), email, role);
+    }
+
+    /**
+     * Разбивает строку CSV на поля. Поле в двойных кавычках может содержать запятые,
+     * кавычка внутри такого поля записывается двумя кавычками.
+     *
+     * @param line строка CSV
+     * @return значения полей
+     * @throws IllegalArgumentException если кавычка не закрыта
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().strip());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString().strip());
+        return fields;
+    }
+
+    private static boolean isCsvHeader(String line) {
+        return line.strip().toLowerCase(Locale.ROOT).startsWith(CSV_HEADER);
+    }
+
+    private static Roles parseRole(String role) {
+        try {
+            return role != null ? Roles.valueOf(role) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Сохраняет порцию строк: отсеивает ошибочные строки и повторяющиеся имена,
+     * параллельно хеширует пароли и вставляет пользователей в одной транзакции.
+     *
+     * @param chunk строки порции
+     * @return результаты строк в порядке их следования во входном файле
+     */
+    private List<ImportRowResult> processChunk(List<PendingRow> chunk) {
+        ImportRowResult[] results = new ImportRowResult[chunk.size()];
+        Map<String, Integer> candidates = new LinkedHashMap<>(); // Имя пользователя -> позиция строки в порции
+        for (int i = 0; i < chunk.size(); i++) {
+            PendingRow row = chunk.get(i);
+            String userName = row.user() != null ? row.user().getUserName() : null;
+            if (!row.errors().isEmpty()) {
+                results[i] = new ImportRowResult(row.line(), userName, ImportStatus.INVALID, null, row.errors());
+            } else if (candidates.putIfAbsent(userName, i) != null) {
+                results[i] = new ImportRowResult(row.line(), userName, ImportStatus.DUPLICATE, null, List.of());
+            }
+        }
+        if (!candidates.isEmpty()) {
+            for (String existing : userRepository.findExistingUserNames(candidates.keySet())) {
+                int i = candidates.remove(existing);
+                results[i] = new ImportRowResult(chunk.get(i).line(), existing, ImportStatus.DUPLICATE, null, List.of());
+            }
+        }
+        if (!candidates.isEmpty()) {
+            chunkTimer.record(() -> insert(chunk, candidates.values(), results));
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Хеширует пароли и вставляет пользователей порции.
+     *
+     * @param chunk     строки порции
+     * @param positions позиции вставляемых строк в порции
+     * @param results   результаты строк порции, заполняются для вставляемых строк
+     */
+    private void insert(List<PendingRow> chunk, Collection<Integer> positions, ImportRowResult[] results) {
+        List<CompletableFuture<User>> hashing = new ArrayList<>(positions.size());
+        for (int i : positions) {
+            UserDTO dto = chunk.get(i).user();
+            hashing.add(CompletableFuture.supplyAsync(() -> {
+                User user = new User();
+                user.setUserName(dto.getUserName());
+                user.setEmail(dto.getEmail());
+                user.setPassword(passwordEncoder.encode(dto.getPassword()));
+                user.setRole(Roles.valueOf(dto.getRole()));
+                return user;
+            }, passwordHashExecutor));
+        }
+        List<User> users = hashing.stream().map(CompletableFuture::join).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAll(users);
+                userRepository.flush();
+                entityManager.clear();
+                for (User user : users) {
+                    userTypeaheadIndex.index(user);
+                }
+                changeCounters.changed(ChangeCounters.Scope.USERS);
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Failed to insert imported users, chunk skipped: {}", e.getMostSpecificCause().getMessage());
+            int k = 0;
+            for (int i : positions) {
+                results[i] = new ImportRowResult(chunk.get(i).line(), users.get(k++).getUserName(),
+                        ImportStatus.FAILED, null, List.of("Database constraint violation"));
+            }
+            return;
+        }
+        int k = 0;
+        for (int i : positions) {
+            User user = users.get(k++);
+            userDetailsCache.removeUserFromCache(user.getUserName());
+            results[i] = new ImportRowResult(chunk.get(i).line(), user.getUserName(),
+                    ImportStatus.CREATED, user.getId(), List.of());
+        }
+    }
+
+    /**
+     * Пишет результаты порции в выходной поток и учитывает их в итогах и метриках.
+     *
+     * @param out     выходной поток
+     * @param results результаты строк
+     * @param totals  количество строк по результатам
+     */
+    private void write(OutputStream out, List<ImportRowResult> results, Map<ImportStatus, Long> totals) {
+        try {
+            for (ImportRowResult result : results) {
+                out.write(objectWriter.writeValueAsBytes(result));
+                out.write(NEWLINE);
+                totals.merge(result.status(), 1L, Long::sum);
+                rowCounters.get(result.status()).increment();
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
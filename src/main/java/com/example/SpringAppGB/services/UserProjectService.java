@@ -1,14 +1,18 @@
 package com.example.SpringAppGB.services;
 
-import com.example.SpringAppGB.model.Project;
-import com.example.SpringAppGB.model.User;
+import com.example.SpringAppGB.model.DTO.KeysetPage;
+import com.example.SpringAppGB.model.DTO.MembershipDiff;
+import com.example.SpringAppGB.model.DTO.MembershipOutcome;
+import com.example.SpringAppGB.model.DTO.ProjectSummary;
+import com.example.SpringAppGB.model.DTO.UserSummary;
 import com.example.SpringAppGB.repository.interfaces.UsersProjectRepository;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -22,14 +26,16 @@ public class UserProjectService {
     private final UsersProjectRepository usersProjectRepository;
     private final UserService userService;
     private final ProjectService projectService;
+    private final MembershipIndex membershipIndex;
+    private final ChangeCounters changeCounters;
 
     /**
      * Метод, возвращающий список пользователей, связанных с определенным проектом
      *
      * @param projectId идентификатор проекта
-     * @return список пользователей
+     * @return краткие данные пользователей или null, если проект не найден
      */
-    public List<User> getUsersByProjectId(Long projectId) {
+    public List<UserSummary> getUsersByProjectId(Long projectId) {
         return projectValidation(projectId) ? usersProjectRepository.findUsersByProjectId(projectId) :
                 null;
     }
@@ -38,26 +44,30 @@ public class UserProjectService {
      * Метод, возвращающий список проектов, связанных с определенным пользователем
      *
      * @param userId идентификатор пользователя
-     * @return список проектов
+     * @return краткие данные проектов или null, если пользователь не найден
      */
-    public List<Project> getProjectsByUserId(Long userId) {
+    public List<ProjectSummary> getProjectsByUserId(Long userId) {
         return userValidation(userId) ? usersProjectRepository.findProjectsByUserId(userId) : null;
     }
 
     /**
-     * Метод, возвращающий список пользователей, не входящих в проект
+     * Метод, возвращающий страницу пользователей, не входящих в проект
      *
      * @param projectId идентификатор проекта
-     * @return список пользователей, не входящих в проект
+     * @param after     идентификатор последнего пользователя предыдущей страницы или null для первой страницы
+     * @param query     начало имени или адреса электронной почты для фильтрации или null без фильтра
+     * @param limit     размер страницы
+     * @return страница пользователей, не входящих в проект, или null, если проект не найден
      */
-    public List<User> getUsersNotInProject(Long projectId) {
+    @Transactional
+    public KeysetPage<UserSummary> getUsersNotInProject(Long projectId, Long after, String query, int limit) {
         if (!projectValidation(projectId)){
             return null;
         }
-        List<Long> userIds = this.getUsersByProjectId(projectId)
-                .stream().map(User::getId)
-                .collect(Collectors.toList());
-        return usersProjectRepository.findUsersNotInProject(userIds);
+        String pattern = query == null || query.isBlank() ? null : UserService.prefixPattern(query);
+        List<UserSummary> rows = usersProjectRepository.findUsersNotInProject(projectId,
+                after != null ? after : 0L, pattern, Limit.of(limit + 1));
+        return KeysetPage.of(rows, limit, UserSummary::id);
     }
 
     /**
@@ -69,22 +79,111 @@ public class UserProjectService {
      */
     @Transactional
     public boolean addUserToProject(Long projectId, List<Long> userIds) {
+        Map<Long, MembershipOutcome> outcomes = addUsersToProject(projectId, userIds);
+        return outcomes != null && outcomes.containsValue(MembershipOutcome.ADDED);
+    }
+
+    /**
+     * Метод, добавляющий пользователей к проекту набором запросов, не зависящим от числа пользователей.
+     * Существование пользователей проверяется одним запросом IN, текущие связи - по индексу {@link MembershipIndex},
+     * недостающие связи вставляются пакетами команд MERGE.
+     *
+     * @param projectId идентификатор проекта
+     * @param userIds   список идентификаторов пользователей
+     * @return результат для каждого идентификатора в порядке запроса или null, если проект не найден
+     */
+    @Transactional
+    public Map<Long, MembershipOutcome> addUsersToProject(Long projectId, List<Long> userIds) {
         if (!projectValidation(projectId)) {
-            return false;
+            return null;
         }
-        Long relatedEntityId = projectId;
-        int a = 0;
-        for (Long userId : userIds) {
-            if ((userService.getUserById(userId) != null) &&
-                    (!usersProjectRepository.existsByUserIdAndProjectId(userId, projectId))) {
-                a += usersProjectRepository.addUsersToProject(relatedEntityId, projectId, userId);
+        Set<Long> requested = userIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, MembershipOutcome> outcomes = new LinkedHashMap<>();
+        if (requested.isEmpty()) {
+            return outcomes;
+        }
+        Set<Long> existingUsers = new HashSet<>(usersProjectRepository.findExistingUserIds(requested));
+        List<Long> toInsert = new ArrayList<>();
+        for (Long userId : requested) {
+            if (!existingUsers.contains(userId)) {
+                outcomes.put(userId, MembershipOutcome.USER_NOT_FOUND);
+            } else if (membershipIndex.isMember(userId, projectId)) {
+                outcomes.put(userId, MembershipOutcome.ALREADY_MEMBER);
+            } else {
+                toInsert.add(userId);
             }
         }
-        return a > 0;
+        int[] inserted = usersProjectRepository.mergeMemberships(projectId, toInsert);
+        List<Long> added = new ArrayList<>(toInsert.size());
+        for (int i = 0; i < toInsert.size(); i++) {
+            // Связь могла появиться после проверки в параллельной транзакции, тогда MERGE ничего не вставляет
+            if (inserted[i] > 0) {
+                added.add(toInsert.get(i));
+                outcomes.put(toInsert.get(i), MembershipOutcome.ADDED);
+            } else {
+                outcomes.put(toInsert.get(i), MembershipOutcome.ALREADY_MEMBER);
+            }
+        }
+        membershipIndex.add(projectId, added);
+        changeCounters.changed(ChangeCounters.Scope.MEMBERSHIPS);
+        return outcomes;
     }
 
     /**
-     * Метод, удаляющий пользователя из проекта
+     * Метод, приводящий состав участников проекта к заданному набору пользователей.
+     * Текущий состав берется из индекса {@link MembershipIndex}, затем вычисляются минимальные изменения:
+     * недостающие пользователи добавляются, лишние удаляются. Изменения применяются пакетами команд
+     * в одной транзакции. Пользователи, которых нет в базе, пропускаются и возвращаются в notFound.
+     *
+     * @param projectId идентификатор проекта
+     * @param userIds   полный желаемый набор идентификаторов участников проекта
+     * @return выполненные изменения или null, если проект не найден
+     */
+    @Transactional
+    public MembershipDiff syncProjectMembers(Long projectId, Collection<Long> userIds) {
+        if (!projectValidation(projectId)) {
+            return null;
+        }
+        Set<Long> desired = userIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<Long> existingUsers = desired.isEmpty() ? Set.of() :
+                new HashSet<>(usersProjectRepository.findExistingUserIds(desired));
+        Set<Long> current = new HashSet<>(membershipIndex.getMemberIds(projectId));
+
+        List<Long> toAdd = new ArrayList<>();
+        List<Long> notFound = new ArrayList<>();
+        for (Long userId : desired) {
+            if (!existingUsers.contains(userId)) {
+                notFound.add(userId);
+            } else if (!current.contains(userId)) {
+                toAdd.add(userId);
+            }
+        }
+        List<Long> toRemove = current.stream()
+                .filter(userId -> !desired.contains(userId))
+                .sorted()
+                .toList();
+
+        usersProjectRepository.deleteMemberships(projectId, toRemove);
+        membershipIndex.remove(projectId, toRemove);
+        int[] inserted = usersProjectRepository.mergeMemberships(projectId, toAdd);
+        List<Long> added = new ArrayList<>(toAdd.size());
+        for (int i = 0; i < toAdd.size(); i++) {
+            if (inserted[i] > 0) {
+                added.add(toAdd.get(i));
+            }
+        }
+        membershipIndex.add(projectId, added);
+        changeCounters.changed(ChangeCounters.Scope.MEMBERSHIPS);
+        return new MembershipDiff(added, toRemove, notFound);
+    }
+
+    /**
+     * Метод, удаляющий пользователя из проекта.
+     * Участники проекта определяются по индексу {@link MembershipIndex}, их связи удаляются пакетом команд.
      *
      * @param projectId идентификатор проекта
      * @param userIds   список идентификаторов пользователей
@@ -95,12 +194,14 @@ public class UserProjectService {
         if (!projectValidation(projectId)) {
             return false;
         }
-        int a = 0;
-        for (Long userId : userIds) {
-            if (userService.getUserById(userId) != null) {
-                a += usersProjectRepository.removeUserAndProject(userId, projectId);
-            }
-        }
+        List<Long> members = userIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .filter(userId -> membershipIndex.isMember(userId, projectId))
+                .toList();
+        int a = usersProjectRepository.deleteMemberships(projectId, members);
+        membershipIndex.remove(projectId, members);
+        changeCounters.changed(ChangeCounters.Scope.MEMBERSHIPS);
         return a>0;
     }
 
@@ -121,9 +222,45 @@ public class UserProjectService {
         }
         int a = 0;
         a += usersProjectRepository.removeUserAndProject(userId, projectId);
+        if (userId == null) {
+            membershipIndex.removeProject(projectId);
+        } else {
+            membershipIndex.remove(projectId, List.of(userId));
+        }
+        changeCounters.changed(ChangeCounters.Scope.MEMBERSHIPS);
         return a>0;
     }
 
+    /**
+     * Метод, возвращающий участников проекта, которые не состоят в другом проекте.
+     * Вычисляется разностью битовых карт индекса {@link MembershipIndex}.
+     *
+     * @param projectId        идентификатор проекта
+     * @param excludeProjectId идентификатор проекта, участники которого исключаются
+     * @return идентификаторы пользователей или null, если один из проектов не найден
+     */
+    public List<Long> getMembersNotInProject(Long projectId, Long excludeProjectId) {
+        if (!projectValidation(projectId) || !projectValidation(excludeProjectId)) {
+            return null;
+        }
+        return membershipIndex.getMembersNotIn(projectId, excludeProjectId);
+    }
+
+    /**
+     * Метод, возвращающий общие проекты двух пользователей.
+     * Вычисляется пересечением битовых карт индекса {@link MembershipIndex}.
+     *
+     * @param userId      идентификатор первого пользователя
+     * @param otherUserId идентификатор второго пользователя
+     * @return идентификаторы проектов или null, если один из пользователей не найден
+     */
+    public List<Long> getCommonProjects(Long userId, Long otherUserId) {
+        if (!userValidation(userId) || !userValidation(otherUserId)) {
+            return null;
+        }
+        return membershipIndex.getCommonProjectIds(userId, otherUserId);
+    }
+
     /**
      * Метод проверяет, существует ли проект с заданным идентификатором.
      *
@@ -131,8 +268,7 @@ public class UserProjectService {
      * @return true, если проект существует; false в противном случае
      */
     private boolean projectValidation(Long projectId) {
-        Project project = projectService.findProjectById(projectId);
-        return project != null;
+        return projectService.getProjectSummaryById(projectId) != null;
     }
 
     /**
@@ -142,7 +278,6 @@ public class UserProjectService {
      * @return true, если пользователь существует; false в противном случае
      */
     private boolean userValidation(Long userId) {
-        User user = userService.getUserById(userId);
-        return user != null;
+        return userService.getUserSummaryById(userId) != null;
     }
 }
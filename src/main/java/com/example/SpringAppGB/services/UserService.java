@@ -1,11 +1,20 @@
 package com.example.SpringAppGB.services;
 
-import com.example.SpringAppGB.Authorization.services.JwtTokenProvider;
+import com.example.SpringAppGB.Authorization.model.AppUserDetails;
+import com.example.SpringAppGB.Authorization.services.RefreshTokenStore;
+import com.example.SpringAppGB.model.DTO.KeysetPage;
+import com.example.SpringAppGB.model.DTO.UserSuggestion;
+import com.example.SpringAppGB.model.DTO.UserSummary;
 import com.example.SpringAppGB.model.User;
 import com.example.SpringAppGB.repository.interfaces.UserRepository;
 import com.example.SpringAppGB.services.Interfaces.UserServiceInterface;
-import jakarta.servlet.http.HttpServletRequest;
+import com.example.SpringAppGB.config.CacheConfig;
 import lombok.AllArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -14,20 +23,30 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Service;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.regex.Pattern;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 /**
  * Сервис для управления пользователями.
  * Предоставляет методы для работы с пользователями в системе.
+ * Пользователи по идентификатору и по имени кэшируются; кэши очищаются при добавлении, изменении и удалении пользователей.
+ * Изменения пользователей отмечаются в счетчике {@link ChangeCounters}, по которому строятся ETag списков.
  */
 @Service
 @AllArgsConstructor
 public class UserService implements UserDetailsService, UserServiceInterface {
 
+    private static final Pattern LIKE_SPECIAL_CHARS = Pattern.compile("[\\\\%_]"); // Экранируются в шаблоне LIKE
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;  // Добавлен PasswordEncoder
-    private final JwtTokenProvider jwtTokenProvider;
+    private final UserDetailsCache userDetailsCache;
+    private final RefreshTokenStore refreshTokenStore;
+    private final UserTypeaheadIndex userTypeaheadIndex;
+    private final MembershipIndex membershipIndex;
+    private final ChangeCounters changeCounters;
 
     /**
      * Получает пользователя по его username
@@ -45,6 +64,7 @@ public class UserService implements UserDetailsService, UserServiceInterface {
      * @param userAdd объект пользователя для добавления
      */
     @Transactional
+    @CacheEvict(value = CacheConfig.USERS_BY_NAME, key = "#userAdd.userName")
     public void addUser(User userAdd) {
         User user = new User();
         user.setUserName(userAdd.getUserName());
@@ -52,6 +72,9 @@ public class UserService implements UserDetailsService, UserServiceInterface {
         user.setPassword(passwordEncoder.encode(userAdd.getPassword()));
         user.setRole(userAdd.getRole());
         userRepository.save(user);
+        userDetailsCache.removeUserFromCache(user.getUserName());
+        userTypeaheadIndex.index(user);
+        changeCounters.changed(ChangeCounters.Scope.USERS);
     }
 
     /**
@@ -64,7 +87,21 @@ public class UserService implements UserDetailsService, UserServiceInterface {
     }
 
     /**
-     * Получает пользователя по его идентификатору.
+     * Получает страницу пользователей, упорядоченных по идентификатору.
+     *
+     * @param after идентификатор последнего пользователя предыдущей страницы или null для первой страницы
+     * @param limit размер страницы
+     * @return страница пользователей с курсором следующей страницы
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<User> getUsersPage(Long after, int limit) {
+        List<User> rows = userRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after : 0L, Limit.of(limit + 1));
+        return KeysetPage.of(rows, limit, User::getId);
+    }
+
+    /**
+     * Получает сущность пользователя по его идентификатору для изменения (например, в форме редактирования).
+     * Сущность не кэшируется: для чтения используется {@link #getUserSummaryById(Long)}.
      *
      * @param userId идентификатор пользователя
      * @return объект пользователя или null, если пользователь не найден
@@ -73,27 +110,105 @@ public class UserService implements UserDetailsService, UserServiceInterface {
         return userRepository.findById(userId).orElse(null);
     }
 
+    /**
+     * Получает краткие данные пользователя по его идентификатору.
+     * В общем кэше хранятся неизменяемые данные, а не сущность: сущность вне сессии не загружает
+     * ленивые связи, а изменения ее общего экземпляра были бы видны всем запросам.
+     *
+     * @param userId идентификатор пользователя
+     * @return краткие данные пользователя или null, если пользователь не найден
+     */
+    @Cacheable(value = CacheConfig.USERS, key = "#userId", unless = "#result == null")
+    public UserSummary getUserSummaryById(Long userId) {
+        return userRepository.findSummaryById(userId).orElse(null);
+    }
+
+    /**
+     * Получает краткие данные пользователя по имени пользователя.
+     *
+     * @param userName имя пользователя
+     * @return краткие данные пользователя или null, если пользователь не найден
+     */
+    @Cacheable(value = CacheConfig.USERS_BY_NAME, key = "#userName", unless = "#result == null")
+    public UserSummary getUserSummaryByUserName(String userName) {
+        return userRepository.findSummaryByUserName(userName).orElse(null);
+    }
+
+    /**
+     * Возвращает подсказки пользователей, у которых имя или адрес электронной почты начинается с префикса.
+     * Подсказки берутся из индекса в памяти без обращения к базе данных.
+     *
+     * @param prefix начало имени пользователя или адреса электронной почты
+     * @param limit  максимальное количество подсказок
+     * @return список подсказок
+     */
+    public List<UserSuggestion> suggestUsers(String prefix, int limit) {
+        return userTypeaheadIndex.search(prefix, limit);
+    }
+
+    /**
+     * Находит пользователей, у которых имя или адрес электронной почты начинается с указанной строки.
+     * Поиск не учитывает регистр и выполняется по индексам столбцов в нижнем регистре.
+     *
+     * @param findString начало имени пользователя или адреса электронной почты
+     * @return список найденных пользователей
+     */
     @Override
     public List<User> findUserByUserNameOrByEmail(String findString){
-        List<User> users = userRepository.findUserByUserNameOrEmail(findString, findString);
+        List<User> users = userRepository.findUserByUserNameOrEmail(prefixPattern(findString));
         return users != null ? users : Collections.emptyList();
     }
+    /**
+     * Строит шаблон LIKE для поиска по префиксу без учета регистра.
+     * Символы '%', '_' и '\' в строке поиска экранируются символом '\'.
+     *
+     * @param prefix строка поиска
+     * @return шаблон вида "префикс%" в нижнем регистре
+     */
+    static String prefixPattern(String prefix) {
+        return LIKE_SPECIAL_CHARS.matcher(prefix.strip().toLowerCase(Locale.ROOT)).replaceAll("\\\\$0") + "%";
+    }
+
     /**
      * Обновляет данные пользователя по его идентификатору.
      *
      * Этот метод извлекает пользователя по идентификатору,
      * обновляет его свойства и сохраняет изменения в репозитории.
+     * Версия пользователя проверяется дважды: с ожидаемой версией клиента и при записи в базу данных,
+     * чтобы не перезаписать изменение из параллельной транзакции.
      *
      * @param userId идентификатор пользователя, который необходимо обновить.
      * @param user объект пользователя, содержащий обновленные данные.
+     * @param expectedVersion версия пользователя, которую видел клиент, или null, если версия не проверяется.
+     * @return обновленный пользователь с новой версией или null, если пользователь не найден.
+     * @throws OptimisticLockingFailureException если версия пользователя отличается от ожидаемой.
      */
     @Transactional
-    public void updateUser(Long userId, User user) {
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.USERS, key = "#userId"),
+            @CacheEvict(value = CacheConfig.USERS_BY_NAME, allEntries = true) // Прежнее имя по идентификатору неизвестно
+    })
+    public User updateUser(Long userId, User user, Long expectedVersion) {
         User userToBeUpdated = getUserById(userId);
+        if (userToBeUpdated == null) {
+            return null;
+        }
+        if (expectedVersion != null && !expectedVersion.equals(userToBeUpdated.getVersion())) {
+            throw new OptimisticLockingFailureException("User " + userId + " has version "
+                    + userToBeUpdated.getVersion() + ", expected " + expectedVersion);
+        }
+        userDetailsCache.removeUserFromCache(userToBeUpdated.getUserName());
+        userDetailsCache.removeUserFromCache(user.getUserName());
+        if (!userToBeUpdated.getUserName().equals(user.getUserName())) {
+            refreshTokenStore.revokeAll(userToBeUpdated.getUserName());
+        }
         userToBeUpdated.setUserName(user.getUserName());
         userToBeUpdated.setEmail(user.getEmail());
-        userRepository.updateUserById(userId, user);
-        userRepository.flush();
+        userToBeUpdated.setRole(user.getRole());
+        userRepository.saveAndFlush(userToBeUpdated);
+        userTypeaheadIndex.index(userToBeUpdated);
+        changeCounters.changed(ChangeCounters.Scope.USERS);
+        return userToBeUpdated;
     }
 
     /**
@@ -104,15 +219,27 @@ public class UserService implements UserDetailsService, UserServiceInterface {
      * @param userId идентификатор пользователя, которого необходимо удалить.
      */
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.USERS, key = "#userId"),
+            @CacheEvict(value = CacheConfig.USERS_BY_NAME, allEntries = true) // Прежнее имя по идентификатору неизвестно
+    })
     public void deleteUser(Long userId) {
+        User user = getUserById(userId);
+        if (user != null) {
+            userDetailsCache.removeUserFromCache(user.getUserName());
+            refreshTokenStore.revokeAll(user.getUserName());
+        }
         userRepository.deleteById(userId);
+        userTypeaheadIndex.delete(userId);
+        membershipIndex.removeUser(userId); // Связи пользователя удаляются каскадно
+        changeCounters.changed(ChangeCounters.Scope.USERS, ChangeCounters.Scope.MEMBERSHIPS);
     }
 
     /**
      * Метод загружает пользователя по имени пользователя для аутентификации в Spring Security.
      *
      * @param username имя пользователя, которое нужно найти
-     * @return UserDetails объект с данными пользователя для аутентификации
+     * @return UserDetails объект с данными пользователя для аутентификации, включающий идентификатор пользователя
      * @throws UsernameNotFoundException если пользователь с таким именем не найден
      */
 
@@ -124,23 +251,10 @@ public class UserService implements UserDetailsService, UserServiceInterface {
         // Преобразование единственной роли в список SimpleGrantedAuthority
         List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(user.getRole().name()));
 
-        return new org.springframework.security.core.userdetails.User(
+        return new AppUserDetails(
+                user.getId(),
                 user.getUserName(),
                 user.getPassword(),
                 authorities);
     }
-
-    /**
-     * Извлекает пользователя из токена JWT, находящегося в cookies запроса.
-     *
-     * @param request объект HttpServletRequest, содержащий cookies с JWT токеном.
-     * @return объект User, соответствующий имени пользователя, извлечённому из токена,
-     *         или null, если пользователь не найден.
-     */
-
-    public User getUserFromToken(HttpServletRequest request) {
-        String token = jwtTokenProvider.getJwtFromCookies(request);
-        String username = jwtTokenProvider.getUsernameFromToken(token);
-        return userRepository.findByUserName(username).orElse(null);
-    }
 }
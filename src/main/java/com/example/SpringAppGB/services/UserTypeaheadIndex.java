@@ -0,0 +1,195 @@
+package com.example.SpringAppGB.services;
+
+import com.example.SpringAppGB.model.DTO.UserSuggestion;
+import com.example.SpringAppGB.model.User;
+import com.example.SpringAppGB.repository.interfaces.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Префиксный индекс пользователей в памяти для подсказок при вводе.
+ * Имена пользователей и адреса электронной почты в нижнем регистре хранятся в отсортированных словарях,
+ * поэтому все значения с заданным префиксом образуют непрерывный диапазон ключей, и первые k совпадений
+ * находятся за логарифмическое время без обращения к базе данных.
+ * Индекс строится при старте и обновляется сервисом {@link UserService} при изменении пользователей.
+ * Изменения применяются после фиксации транзакции через {@link CommitActions}, поэтому подсказки не содержат
+ * незафиксированных пользователей, а изменения откаченной транзакции в индекс не попадают.
+ * Размер индекса и время запросов публикуются в метриках "users.typeahead.*".
+ */
+@Component
+@Slf4j
+public class UserTypeaheadIndex {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final CommitActions commitActions;
+    private final Timer queryTimer;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, UserSuggestion> users = new HashMap<>();
+    private final NavigableMap<String, Set<Long>> byName = new TreeMap<>();
+    private final NavigableMap<String, Set<Long>> byEmail = new TreeMap<>();
+
+    /**
+     * Создает пустой индекс и регистрирует его метрики.
+     *
+     * @param userRepository репозиторий пользователей для построения индекса
+     * @param commitActions  применение изменений после фиксации транзакции
+     * @param meterRegistry  реестр метрик приложения
+     */
+    public UserTypeaheadIndex(UserRepository userRepository, CommitActions commitActions,
+                              MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.commitActions = commitActions;
+        this.queryTimer = Timer.builder("users.typeahead.query")
+                .description("User type-ahead lookup latency")
+                .register(meterRegistry);
+        Gauge.builder("users.typeahead.index.users", this, index -> index.size())
+                .description("Number of users in the type-ahead index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Строит индекс по всем пользователям, читая их порциями по первичному ключу.
+     */
+    @PostConstruct
+    public void rebuild() {
+        List<UserSuggestion> loaded = new ArrayList<>();
+        long after = 0L;
+        List<User> batch;
+        do {
+            batch = userRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(LOAD_BATCH_SIZE));
+            for (User user : batch) {
+                loaded.add(toSuggestion(user));
+                after = user.getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+
+        lock.writeLock().lock();
+        try {
+            users.clear();
+            byName.clear();
+            byEmail.clear();
+            loaded.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("User type-ahead index built: {} users", loaded.size());
+    }
+
+    /**
+     * Добавляет пользователя в индекс или обновляет его имя и адрес электронной почты.
+     *
+     * @param user пользователь с идентификатором
+     */
+    public void index(User user) {
+        UserSuggestion suggestion = toSuggestion(user);
+        commitActions.afterCommit(this, lock.writeLock(), () -> {
+            remove(suggestion.id());
+            put(suggestion);
+        });
+    }
+
+    /**
+     * Удаляет пользователя из индекса.
+     *
+     * @param userId идентификатор пользователя
+     */
+    public void delete(Long userId) {
+        commitActions.afterCommit(this, lock.writeLock(), () -> remove(userId));
+    }
+
+    /**
+     * Возвращает первых пользователей, у которых имя или адрес электронной почты начинается с префикса.
+     * Совпадения по имени идут раньше совпадений по адресу, внутри группы - в алфавитном порядке.
+     *
+     * @param prefix префикс без учета регистра
+     * @param limit  максимальное количество подсказок
+     * @return подсказки
+     */
+    public List<UserSuggestion> search(String prefix, int limit) {
+        String key = prefix.toLowerCase(Locale.ROOT);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return queryTimer.record(() -> {
+            lock.readLock().lock();
+            try {
+                Set<Long> ids = new LinkedHashSet<>();
+                collect(byName, key, limit, ids);
+                collect(byEmail, key, limit, ids);
+                List<UserSuggestion> result = new ArrayList<>(ids.size());
+                ids.forEach(id -> result.add(users.get(id)));
+                return result;
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    private static void collect(NavigableMap<String, Set<Long>> terms, String prefix, int limit, Set<Long> ids) {
+        for (Set<Long> termIds : terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            for (Long id : termIds) {
+                if (ids.size() >= limit) {
+                    return;
+                }
+                ids.add(id);
+            }
+        }
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return users.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(UserSuggestion user) {
+        users.put(user.id(), user);
+        addTerm(byName, user.userName(), user.id());
+        addTerm(byEmail, user.email(), user.id());
+    }
+
+    private UserSuggestion remove(Long id) {
+        UserSuggestion user = users.remove(id);
+        if (user != null) {
+            removeTerm(byName, user.userName(), id);
+            removeTerm(byEmail, user.email(), id);
+        }
+        return user;
+    }
+
+    private static void addTerm(NavigableMap<String, Set<Long>> terms, String value, Long id) {
+        if (value != null && !value.isEmpty()) {
+            terms.computeIfAbsent(value.toLowerCase(Locale.ROOT), key -> new TreeSet<>()).add(id);
+        }
+    }
+
+    private static void removeTerm(NavigableMap<String, Set<Long>> terms, String value, Long id) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        String key = value.toLowerCase(Locale.ROOT);
+        Set<Long> ids = terms.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            terms.remove(key);
+        }
+    }
+
+    private static UserSuggestion toSuggestion(User user) {
+        return new UserSuggestion(user.getId(), user.getUserName(), user.getEmail());
+    }
+}
@@ -0,0 +1,16 @@
+-- Вход в систему: findByUserName ищет пользователя по имени при каждом входе.
+-- Имя пользователя уникально, поэтому индекс одновременно защищает от дубликатов.
+CREATE UNIQUE INDEX ux_users_user_name ON users (user_name);
+
+-- Связи пользователей и проектов: existsByUserIdAndProjectId и findProjectsByUserId
+-- читают по (user_id, project_id), findUsersByProjectId - по (project_id, user_id).
+-- Повторная связь пользователя с проектом не допускается.
+CREATE UNIQUE INDEX ux_users_project_user_project ON users_project (user_id, project_id);
+CREATE INDEX ix_users_project_project_user ON users_project (project_id, user_id);
+
+-- Поиск пользователей без учета регистра: значения в нижнем регистре хранятся в вычисляемых столбцах,
+-- чтобы поиск по префиксу шел по индексу, а не вычислял LOWER для каждой строки таблицы.
+ALTER TABLE users ADD COLUMN user_name_lower VARCHAR(100) GENERATED ALWAYS AS (LOWER(user_name));
+ALTER TABLE users ADD COLUMN email_lower VARCHAR(255) GENERATED ALWAYS AS (LOWER(email));
+CREATE INDEX ix_users_user_name_lower ON users (user_name_lower);
+CREATE INDEX ix_users_email_lower ON users (email_lower);
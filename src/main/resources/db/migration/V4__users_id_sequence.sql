@@ -0,0 +1,9 @@
+-- Идентификаторы пользователей выдаются последовательностью вместо IDENTITY, чтобы Hibernate мог
+-- вставлять пользователей пакетами JDBC. Шаг последовательности равен allocationSize в User (оптимизатор pooled):
+-- одно обращение к последовательности резервирует 50 идентификаторов.
+-- Начальное значение больше идентификаторов пользователей, созданных предыдущими миграциями.
+CREATE SEQUENCE users_seq START WITH 1000 INCREMENT BY 50;
+
+-- Вставки без указания id (например, из SQL-скриптов) тоже берут значение из последовательности.
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT NEXT VALUE FOR users_seq;
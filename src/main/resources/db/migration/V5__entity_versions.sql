@@ -0,0 +1,4 @@
+-- Версии строк для оптимистической блокировки пользователей и проектов (@Version).
+-- Значение версии передается клиентам в ETag и проверяется по заголовку If-Match при изменении.
+ALTER TABLE users ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE projects ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,38 @@
+// Страница входа: обновление токена без ввода пароля и отправка формы входа.
+// Если есть действующий токен обновления, получаем новый JWT токен без ввода пароля
+fetch('/auth/refresh', {method: 'POST'})
+    .then(response => {
+        if (response.ok) {
+            window.location.href = response.headers.get('Location');
+        }
+    })
+    .catch(error => console.debug('Токен обновления недоступен:', error));
+
+function submitForm(event) {
+    event.preventDefault();
+
+    const form = event.target;
+    const formData = new FormData(form);
+    const object = Object.fromEntries(formData);
+    const json = JSON.stringify(object);
+
+    fetch('/auth/login', {
+        method: 'POST',
+        headers: {
+            'Content-Type': 'application/json',
+        },
+        body: json,
+        redirect: 'follow' // Это гарантирует, что редирект будет обработан
+    })
+        .then(response => {
+            if (!response.ok) {
+                throw new Error('Ошибка сети');
+            }
+            // Если сервер отправил редирект, браузер сам перейдет по Location
+            window.location.href = response.headers.get('Location');  // Не нужно вручную обрабатывать редирект
+        })
+        .catch(error => {
+            console.error('Ошибка:', error);
+            alert('Ошибка при авторизации');
+        });
+}
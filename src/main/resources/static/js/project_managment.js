@@ -0,0 +1,131 @@
+// Страница управления проектами: постраничная загрузка и поиск проектов.
+const PAGE_SIZE = 50;
+let nextCursor = null; // Курсор следующей страницы get_all или null, если страниц больше нет
+let searchQuery = null; // Текущий поисковый запрос
+let nextSearchOffset = null; // Смещение следующей страницы результатов поиска или null
+let loading = false;
+
+function fillTable(projects, append = false) {
+    const tbody = document.querySelector('#projectsTable tbody');
+    if (!append) {
+        tbody.innerHTML = ''; // Очищаем текущее содержимое таблицы
+    }
+
+    if (projects.length === 0 && !append) {
+        const row = document.createElement('tr');
+        row.innerHTML = `<td colspan="4">Проекты не найдены.</td>`;
+        tbody.appendChild(row); // Отображение сообщения, если список пуст
+    } else {
+        projects.forEach(project => {
+            const row = document.createElement('tr');
+            row.innerHTML = `
+                        <td><a href="/project/${project.id}/users">${project.name}</td>
+                        <td>${project.description}</td>
+                        <td>${project.createdDate}</td>
+                        <td>
+                            </p><a href="/add_user_to_project/${project.id}">Добавить пользователей</a>
+                            <p><a href="/remove_users_from_project/${project.id}">Удалить пользователей</a></p>
+                            <a href="/projects/edit/${project.id}">Редактировать</a>
+                           <a href="#" onclick="deleteProject(${project.id}, this.closest('tr'))">Удалить</a>
+                        </td>
+                    `;
+            tbody.appendChild(row); // Добавляем новую строку в таблицу
+        });
+    }
+}
+
+function deleteProject(projectId, row) {
+    if (confirm('Вы действительно хотите удалить проект?')) {
+        fetch(`/api/projects/delete/${projectId}`, {
+            method: 'DELETE'
+        })
+            .then(response => {
+                if (response.ok) {
+                    alert('Проект успешно удален');
+                    row.remove();
+                } else {
+                    alert('Ошибка при удалении проекта');
+                }
+            })
+            .catch(error => {
+                console.error('Ошибка:', error);
+                alert('Произошла ошибка при удалении проекта');
+            });
+    }
+}
+
+// Загружает страницу результатов поиска; при offset === 0 таблица заполняется заново
+function fetchSearchPage(offset) {
+    if (loading) {
+        return;
+    }
+    loading = true;
+    const params = new URLSearchParams({query: searchQuery, offset: offset, limit: PAGE_SIZE});
+    fetch(`/api/projects/search?${params}`)
+        .then(response => response.json()) // Ожидаем JSON-ответ {items, total, nextOffset}
+        .then(page => {
+            fillTable(page.items, offset > 0);
+            nextSearchOffset = page.nextOffset;
+        })
+        .catch(error => console.error('Error fetching projects:', error))
+        .finally(() => {
+            loading = false;
+            loadMoreIfVisible();
+        });
+}
+
+function searchProjects(event) {
+    event.preventDefault();
+    searchQuery = document.querySelector('input[name="query"]').value;
+    nextCursor = null;
+    fetchSearchPage(0);
+}
+
+// Загружает страницу проектов после указанного курсора; при after === null таблица заполняется заново
+function fetchProjectsPage(after) {
+    if (loading) {
+        return;
+    }
+    loading = true;
+    const params = new URLSearchParams({limit: PAGE_SIZE});
+    if (after !== null) {
+        params.set('after', after);
+    }
+    fetch(`/api/projects/get_all?${params}`)
+        .then(response => response.json()) // Ожидаем JSON-ответ {items, nextCursor}
+        .then(page => {
+            fillTable(page.items, after !== null);
+            nextCursor = page.nextCursor;
+        })
+        .catch(error => console.error('Error fetching projects:', error))
+        .finally(() => {
+            loading = false;
+            loadMoreIfVisible();
+        });
+}
+
+function fetchAllProjects() {
+    nextSearchOffset = null;
+    fetchProjectsPage(null);
+}
+
+// Бесконечная прокрутка: следующая страница загружается, когда конец таблицы виден на экране
+function loadMoreIfVisible() {
+    const sentinel = document.getElementById('scrollSentinel');
+    if (sentinel.getBoundingClientRect().top > window.innerHeight) {
+        return;
+    }
+    if (nextCursor !== null) {
+        fetchProjectsPage(nextCursor);
+    } else if (nextSearchOffset !== null) {
+        fetchSearchPage(nextSearchOffset);
+    }
+}
+
+document.addEventListener('DOMContentLoaded', () => {
+    new IntersectionObserver(loadMoreIfVisible).observe(document.getElementById('scrollSentinel'));
+});
+
+function addProject() {
+    window.location.href = '/projects/add';
+}
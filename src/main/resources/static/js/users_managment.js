@@ -0,0 +1,158 @@
+// Страница управления пользователями: постраничная загрузка, поиск и подсказки при вводе.
+const PAGE_SIZE = 50;
+let nextCursor = null; // Курсор следующей страницы get_all или null, если страниц больше нет
+let loading = false;
+
+function fillTable(users, append = false) {
+    const tbody = document.querySelector('#usersTable tbody');
+    if (!append) {
+        tbody.innerHTML = ''; // Очищаем текущее содержимое таблицы
+    }
+
+    if (users.length === 0 && !append) {
+        const row = document.createElement('tr');
+        row.innerHTML = `<td colspan="4">Пользователи не найдены.</td>`;
+        tbody.appendChild(row); // Отображение сообщения, если список пуст
+    } else {
+        users.forEach(user => {
+            const row = document.createElement('tr');
+            let roleDisplay;
+            switch (user.role) {
+                case 'ROLE_ADMIN':
+                    roleDisplay = 'Администратор';
+                    break;
+                case 'ROLE_MANAGER':
+                    roleDisplay = 'Руководитель проекта';
+                    break;
+                case 'ROLE_USER':
+                    roleDisplay = 'Пользователь';
+                    break;
+                default:
+                    roleDisplay = user.role;
+            }
+            row.innerHTML = `
+                        <td><a href="user/${user.id}/projects">${user.userName}</a></td>
+                        <td>${user.email}</td>
+                        <td>${roleDisplay}</td>
+                        <td>
+                            <a href="/users/edit/${user.id}">Редактировать</a>
+                           <a href="#" onclick="deleteUser(${user.id}, this.closest('tr'))">Удалить</a>
+                        </td>
+                    `;
+            tbody.appendChild(row); // Добавляем новую строку в таблицу
+        });
+    }
+}
+function deleteUser(userId, row) {
+    if (confirm('Вы действительно хотите удалить пользователя?')) {
+        fetch(`/api/users/delete/${userId}`, {
+            method: 'DELETE'
+        })
+            .then(response => {
+                if (response.ok) {
+                    // Если удаление прошло успешно, обновите интерфейс или удалите строку из таблицы
+                    alert('Пользователь успешно удален');
+                    // Например, вы можете обновить таблицу, или удалить строку
+                    row.remove();
+                } else {
+                    alert('Ошибка при удалении пользователя');
+                }
+            })
+            .catch(error => {
+                console.error('Ошибка:', error);
+                alert('Произошла ошибка при удалении пользователя');
+            });
+    }
+}
+
+function fetchUsers(url) {
+    nextCursor = null; // Результаты поиска выводятся одним списком
+    fetch(url)
+        .then(response => response.json()) // Ожидаем JSON-ответ
+        .then(users => {
+            fillTable(users);
+        })
+        .catch(error => console.error('Error fetching users:', error));
+}
+
+function searchUsers(event) {
+    event.preventDefault();
+    const query = document.querySelector('input[name="query"]').value;
+    fetchUsers(`/api/users/search?query=${encodeURIComponent(query)}`);
+}
+
+// Загружает страницу пользователей после указанного курсора; при after === null таблица заполняется заново
+function fetchUsersPage(after) {
+    if (loading) {
+        return;
+    }
+    loading = true;
+    const params = new URLSearchParams({limit: PAGE_SIZE});
+    if (after !== null) {
+        params.set('after', after);
+    }
+    fetch(`/api/users/get_all?${params}`)
+        .then(response => response.json()) // Ожидаем JSON-ответ {items, nextCursor}
+        .then(page => {
+            fillTable(page.items, after !== null);
+            nextCursor = page.nextCursor;
+        })
+        .catch(error => console.error('Error fetching users:', error))
+        .finally(() => {
+            loading = false;
+            loadMoreIfVisible();
+        });
+}
+
+function fetchAllUsers() {
+    fetchUsersPage(null);
+}
+
+// Бесконечная прокрутка: следующая страница загружается, когда конец таблицы виден на экране
+function loadMoreIfVisible() {
+    const sentinel = document.getElementById('scrollSentinel');
+    if (nextCursor !== null && sentinel.getBoundingClientRect().top <= window.innerHeight) {
+        fetchUsersPage(nextCursor);
+    }
+}
+
+document.addEventListener('DOMContentLoaded', () => {
+    new IntersectionObserver(loadMoreIfVisible).observe(document.getElementById('scrollSentinel'));
+});
+
+// Подсказки при вводе: запрос отправляется после паузы в наборе, устаревшие ответы отбрасываются
+const TYPEAHEAD_DELAY_MS = 150;
+let typeaheadTimer = null;
+let typeaheadRequest = 0;
+
+function suggestUsers(input) {
+    clearTimeout(typeaheadTimer);
+    const prefix = input.value.trim();
+    const list = document.getElementById('userSuggestions');
+    if (prefix === '') {
+        list.innerHTML = '';
+        return;
+    }
+    typeaheadTimer = setTimeout(() => {
+        const request = ++typeaheadRequest;
+        fetch(`/api/users/typeahead?prefix=${encodeURIComponent(prefix)}&limit=10`)
+            .then(response => response.json())
+            .then(suggestions => {
+                if (request !== typeaheadRequest) {
+                    return;
+                }
+                list.innerHTML = '';
+                suggestions.forEach(user => {
+                    const option = document.createElement('option');
+                    option.value = user.userName;
+                    option.label = user.email;
+                    list.appendChild(option);
+                });
+            })
+            .catch(error => console.error('Error fetching suggestions:', error));
+    }, TYPEAHEAD_DELAY_MS);
+}
+
+function addUser() {
+    window.location.href = '/users/add';
+}
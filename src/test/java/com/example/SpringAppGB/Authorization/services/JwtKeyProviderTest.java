@@ -0,0 +1,81 @@
+package com.example.SpringAppGB.Authorization.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.KeyException;
+import java.security.KeyPair;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты загрузки пары ключей из PEM-файлов.
+ * Проверяют, что публичный и приватный ключи из разных пар (например, во время ротации,
+ * когда новый публичный ключ уже записан, а приватный еще нет) не принимаются как пара,
+ * и что повторная загрузка не генерирует новые ключи вместо удаленных файлов.
+ */
+public class JwtKeyProviderTest {
+
+    @TempDir
+    private Path keyDirectory;
+
+    private JwtKeyProvider jwtKeyProvider;
+
+    @BeforeEach
+    void setUp() {
+        jwtKeyProvider = new JwtKeyProvider();
+        ReflectionTestUtils.setField(jwtKeyProvider, "privateKeyPath", keyDirectory.resolve("private_key.pem").toString());
+        ReflectionTestUtils.setField(jwtKeyProvider, "publicKeyPath", keyDirectory.resolve("public_key.pem").toString());
+    }
+
+    /**
+     * Проверяет, что ключи одной пары загружаются из файлов.
+     */
+    @Test
+    void loadKeyPairAcceptsMatchingKeys() throws Exception {
+        KeyPair pair = JwtAlgorithm.RS256.generateKeyPair();
+        jwtKeyProvider.savePublicKeyToFile(pair.getPublic());
+        jwtKeyProvider.savePrivateKeyToFile(pair.getPrivate());
+
+        KeyPair loaded = jwtKeyProvider.loadKeyPair();
+
+        assertEquals(pair.getPublic(), loaded.getPublic());
+        assertEquals(pair.getPublic(), jwtKeyProvider.getPublicKey());
+    }
+
+    /**
+     * Проверяет, что новый публичный ключ со старым приватным отклоняется, а пара в памяти не меняется.
+     */
+    @Test
+    void loadKeyPairRejectsKeysFromDifferentPairs() throws Exception {
+        KeyPair oldPair = JwtAlgorithm.RS256.generateKeyPair();
+        jwtKeyProvider.savePublicKeyToFile(oldPair.getPublic());
+        jwtKeyProvider.savePrivateKeyToFile(oldPair.getPrivate());
+        jwtKeyProvider.loadKeyPair();
+
+        jwtKeyProvider.savePublicKeyToFile(JwtAlgorithm.RS256.generateKeyPair().getPublic());
+
+        assertThrows(KeyException.class, jwtKeyProvider::loadKeyPair);
+        assertEquals(oldPair.getPublic(), jwtKeyProvider.getPublicKey());
+    }
+
+    /**
+     * Проверяет, что ключи генерируются только при первичной загрузке, а повторная загрузка
+     * при отсутствии файлов завершается ошибкой и не меняет пару в памяти.
+     */
+    @Test
+    void loadKeyPairDoesNotGenerateMissingKeys() throws Exception {
+        KeyPair generated = jwtKeyProvider.loadOrGenerateKeyPair();
+        Files.delete(keyDirectory.resolve("private_key.pem"));
+        Files.delete(keyDirectory.resolve("public_key.pem"));
+
+        assertThrows(NoSuchFileException.class, jwtKeyProvider::loadKeyPair);
+        assertFalse(Files.exists(keyDirectory.resolve("public_key.pem")));
+        assertEquals(generated.getPublic(), jwtKeyProvider.getPublicKey());
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.SpringAppGB.benchmarks;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.SpringAppGB.Authorization.services.JwtAlgorithm;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.KeyPair;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH бенчмарк пропускной способности подписи и проверки JWT токенов
+ * для каждого поддерживаемого алгоритма (параметр jwt.algorithm).
+ *
+ * Запуск: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.SpringAppGB.benchmarks.JwtAlgorithmBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAlgorithmBenchmark {
+
+    @Param({"RS256", "ES256", "EdDSA"})
+    private String algorithmName;
+
+    private Algorithm algorithm;
+    private JWTVerifier verifier;
+    private String token;
+
+    /**
+     * Генерирует пару ключей выбранного алгоритма и подписывает тестовый токен.
+     *
+     * @throws Exception если алгоритм не поддерживается
+     */
+    @Setup
+    public void setUp() throws Exception {
+        JwtAlgorithm jwtAlgorithm = JwtAlgorithm.valueOf(algorithmName);
+        KeyPair keyPair = jwtAlgorithm.generateKeyPair();
+        algorithm = jwtAlgorithm.algorithm(keyPair.getPublic(), keyPair.getPrivate());
+        verifier = JWT.require(jwtAlgorithm.algorithm(keyPair.getPublic(), null)).build();
+        token = sign();
+    }
+
+    /**
+     * Подписывает токен с типичным набором утверждений, как при входе пользователя.
+     *
+     * @return подписанный токен
+     */
+    @Benchmark
+    public String sign() {
+        Instant issuedAt = Instant.now();
+        return JWT.create()
+                .withKeyId("benchmark")
+                .withClaim("roles", List.of("ROLE_USER"))
+                .withIssuer("benchmark")
+                .withIssuedAt(issuedAt)
+                .withExpiresAt(issuedAt.plus(1, ChronoUnit.HOURS))
+                .sign(algorithm);
+    }
+
+    /**
+     * Проверяет подпись токена, как при каждом запросе пользователя.
+     *
+     * @return проверенный токен
+     */
+    @Benchmark
+    public DecodedJWT verify() {
+        return verifier.verify(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtAlgorithmBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
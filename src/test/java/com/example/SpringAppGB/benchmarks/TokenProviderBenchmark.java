@@ -0,0 +1,93 @@
+package com.example.SpringAppGB.benchmarks;
+
+import com.auth0.jwt.JWT;
+import com.example.SpringAppGB.Authorization.model.JwtPrincipal;
+import com.example.SpringAppGB.Authorization.services.JwtKeyProvider;
+import com.example.SpringAppGB.Authorization.services.JwtKeyRing;
+import com.example.SpringAppGB.Authorization.services.JwtTokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH бенчмарк обработки токена в JwtAuthenticationFilter.
+ * Сравнивает прежний путь (validateToken и два отдельных разбора токена для имени и ролей)
+ * с единым вызовом verifyAndExtract. Количество выделяемой памяти на запрос
+ * выводится профилировщиком GC в метрике gc.alloc.rate.norm.
+ *
+ * Запуск: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.SpringAppGB.benchmarks.TokenProviderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenProviderBenchmark {
+
+    private JwtTokenProvider jwtTokenProvider;
+    private String token;
+
+    /**
+     * Создает поставщика токенов с ключами во временной директории и генерирует тестовый токен.
+     *
+     * @throws Exception если не удалось создать ключи
+     */
+    @Setup
+    public void setUp() throws Exception {
+        Path keysDir = Files.createTempDirectory("jwt-bench");
+        JwtKeyProvider jwtKeyProvider = new JwtKeyProvider();
+        ReflectionTestUtils.setField(jwtKeyProvider, "privateKeyPath", keysDir.resolve("private_key.pem").toString());
+        ReflectionTestUtils.setField(jwtKeyProvider, "publicKeyPath", keysDir.resolve("public_key.pem").toString());
+
+        jwtTokenProvider = new JwtTokenProvider(new JwtKeyRing(jwtKeyProvider, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(jwtTokenProvider, "JWT_EXPIRATION_MS", Duration.ofHours(1));
+        token = jwtTokenProvider.generateJwtToken(new User("benchmark", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    /**
+     * Прежний путь обработки: проверка подписи и два дополнительных разбора токена.
+     *
+     * @param blackhole приемник результатов, не дающий JIT удалить вычисления
+     */
+    @Benchmark
+    public void separateCalls(Blackhole blackhole) {
+        blackhole.consume(jwtTokenProvider.validateToken(token));
+        blackhole.consume(JWT.decode(token).getIssuer());
+        blackhole.consume(JWT.decode(token).getClaim("roles").asList(String.class));
+    }
+
+    /**
+     * Новый путь обработки: одна проверка подписи и извлечение данных за один разбор.
+     *
+     * @return данные пользователя из токена
+     */
+    @Benchmark
+    public JwtPrincipal verifyAndExtract() {
+        return jwtTokenProvider.verifyAndExtract(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TokenProviderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
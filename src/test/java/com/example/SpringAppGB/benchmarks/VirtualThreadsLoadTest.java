@@ -0,0 +1,169 @@
+package com.example.SpringAppGB.benchmarks;
+
+import com.example.SpringAppGB.Authorization.services.JwtTokenProvider;
+import com.example.SpringAppGB.SpringAppGbApplication;
+import com.example.SpringAppGB.services.UserService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Нагрузочное сравнение обработки запросов /api/** в потоках платформы и в виртуальных потоках.
+ * Приложение поднимается дважды на случайном порту: с пулом Tomcat из {@link #TOMCAT_THREADS} потоков
+ * и с профилем virtual; размер пула соединений в обоих режимах одинаков. В каждом режиме
+ * {@link #CONCURRENCY} клиентов одновременно запрашивают списки пользователей и проектов с JWT токеном
+ * администратора; пропускная способность и задержки выводятся в лог. Выигрыш виртуальных потоков тем больше, чем дольше запрос ждет базу, поэтому на H2 в памяти
+ * разница меньше, чем на внешней базе.
+ *
+ * Тест долгий, поэтому запускается только явно: mvn test -Dload.benchmark=true -Dtest=VirtualThreadsLoadTest
+ */
+@EnabledIfSystemProperty(named = "load.benchmark", matches = "true")
+public class VirtualThreadsLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsLoadTest.class);
+
+    private static final int TOMCAT_THREADS = 50;
+    private static final int POOL_SIZE = 8; // Значение по умолчанию в профиле virtual
+    private static final int CONCURRENCY = 400;
+    private static final int REQUESTS_PER_CLIENT = 50;
+    private static final int USERS = 10_000;
+
+    /**
+     * Выполняет одинаковую нагрузку в обоих режимах и проверяет, что все запросы завершились успешно.
+     */
+    @Test
+    void compareThreadingModes() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+        log.info("{}", platform);
+        log.info("{}", virtual);
+        assertEquals(0, platform.failures(), "Failed requests with platform threads");
+        assertEquals(0, virtual.failures(), "Failed requests with virtual threads");
+    }
+
+    /**
+     * Запускает приложение в выбранном режиме, заполняет базу и нагружает его запросами.
+     *
+     * @param virtualThreads включить ли виртуальные потоки
+     * @return результаты нагрузки
+     */
+    private Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(SpringAppGbApplication.class);
+        if (virtualThreads) {
+            builder.profiles("virtual");
+        }
+        try (ConfigurableApplicationContext context = builder
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load_" + mode,
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "spring.jpa.show-sql=false",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.springframework.web=WARN",
+                        "logging.level.org.springframework.security=WARN")
+                .run()) {
+            context.getBean(JdbcTemplate.class).execute("INSERT INTO users (user_name, password, email, role) " +
+                    "SELECT 'load_user_' || X, 'password', 'load_user_' || X || '@example.com', 'ROLE_USER' " +
+                    "FROM SYSTEM_RANGE(1, " + USERS + ")");
+            String token = context.getBean(JwtTokenProvider.class)
+                    .generateJwtToken(context.getBean(UserService.class).loadUserByUsername("admin"));
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            return load(mode, baseUrl, token);
+        }
+    }
+
+    /**
+     * Отправляет запросы от {@link #CONCURRENCY} одновременных клиентов, каждый в своем виртуальном потоке.
+     */
+    private Result load(String mode, String baseUrl, String token) throws Exception {
+        AtomicInteger failures = new AtomicInteger();
+        long[] latencies = new long[CONCURRENCY * REQUESTS_PER_CLIENT];
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder()
+                     .executor(clients)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .build()) {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>(CONCURRENCY);
+            for (int client = 0; client < CONCURRENCY; client++) {
+                int offset = client * REQUESTS_PER_CLIENT;
+                futures.add(clients.submit(() -> {
+                    for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + nextPath()))
+                                .header("Authorization", "Bearer " + token)
+                                .timeout(Duration.ofSeconds(30))
+                                .GET()
+                                .build();
+                        long requestStart = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                failures.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failures.incrementAndGet();
+                        }
+                        latencies[offset + i] = System.nanoTime() - requestStart;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            Arrays.sort(latencies);
+            return new Result(mode, latencies.length, failures.get(), elapsed,
+                    percentile(latencies, 0.50), percentile(latencies, 0.99));
+        }
+    }
+
+    /**
+     * Выбирает запрос нагрузки: страницу пользователей со случайного места, список проектов или проекты пользователя.
+     */
+    private static String nextPath() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (random.nextInt(3)) {
+            case 0 -> "/api/users/get_all?limit=50&after=" + random.nextInt(USERS);
+            case 1 -> "/api/projects/get_all";
+            default -> "/api/user_projects?userId=1";
+        };
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))];
+    }
+
+    /**
+     * Результаты нагрузки в одном режиме.
+     */
+    private record Result(String mode, int requests, int failures, long elapsedNanos, long p50Nanos, long p99Nanos) {
+
+        @Override
+        public String toString() {
+            return String.format("%-8s threads: %d requests, %d failed, %.0f req/s, p50 %.1f ms, p99 %.1f ms",
+                    mode, requests, failures, requests / (elapsedNanos / 1e9), p50Nanos / 1e6, p99Nanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.SpringAppGB.repository;
+
+import com.example.SpringAppGB.repository.interfaces.UsersProjectRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверка пакетных операций со связями, подключенных к {@link UsersProjectRepository} как фрагмент.
+ * Spring Data ищет реализацию фрагмента в пакете его интерфейса; если она не найдена,
+ * контекст не поднимается, так как для mergeMemberships строится производный запрос.
+ * Данные берутся из миграции V2: пользователь 2 уже состоит в проекте 1.
+ */
+@SpringBootTest
+@Transactional
+public class MembershipBatchRepositoryTest {
+
+    @Autowired
+    private UsersProjectRepository usersProjectRepository;
+
+    /**
+     * Проверяет, что MERGE добавляет только отсутствующие связи.
+     */
+    @Test
+    void mergeMembershipsSkipsExistingMembers() {
+        int[] inserted = usersProjectRepository.mergeMemberships(1L, List.of(1L, 2L));
+
+        assertArrayEquals(new int[]{1, 0}, inserted);
+    }
+
+    /**
+     * Проверяет, что удаление затрагивает только указанные связи.
+     */
+    @Test
+    void deleteMembershipsRemovesOnlyGivenMembers() {
+        int deleted = usersProjectRepository.deleteMemberships(1L, List.of(1L, 2L));
+
+        assertEquals(1, deleted);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.SpringAppGB.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверка планов выполнения запросов горячего пути.
+ * Схема создается миграциями Flyway, планы запрашиваются у H2 командой EXPLAIN,
+ * и тест проверяет, что в плане указан индекс, а не полный просмотр таблицы.
+ */
+@SpringBootTest
+public class QueryPlanTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Возвращает план выполнения запроса.
+     *
+     * @param sql текст запроса
+     * @return план выполнения в верхнем регистре
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toUpperCase();
+    }
+
+    /**
+     * Поиск пользователя по имени при входе идет по уникальному индексу.
+     */
+    @Test
+    void findByUserNameUsesUniqueIndex() {
+        String plan = explain("SELECT * FROM users WHERE user_name = 'admin'");
+        assertTrue(plan.contains("UX_USERS_USER_NAME"), plan);
+    }
+
+    /**
+     * Проверка членства пользователя в проекте и проекты пользователя читаются по составному индексу.
+     */
+    @Test
+    void membershipByUserUsesCompositeIndex() {
+        String exists = explain("SELECT 1 FROM users_project WHERE user_id = 2 AND project_id = 1");
+        assertTrue(exists.contains("UX_USERS_PROJECT_USER_PROJECT"), exists);
+
+        String projects = explain("SELECT project_id FROM users_project WHERE user_id = 2");
+        assertTrue(projects.contains("UX_USERS_PROJECT_USER_PROJECT"), projects);
+    }
+
+    /**
+     * Участники проекта читаются по индексу (project_id, user_id).
+     */
+    @Test
+    void membershipByProjectUsesCompositeIndex() {
+        String plan = explain("SELECT user_id FROM users_project WHERE project_id = 1");
+        assertTrue(plan.contains("IX_USERS_PROJECT_PROJECT_USER"), plan);
+    }
+
+    /**
+     * Поиск пользователей по префиксу имени или адреса читает индексы вычисляемых столбцов в нижнем регистре.
+     */
+    @Test
+    void prefixSearchUsesLowerCaseIndexes() {
+        String plan = explain("SELECT id FROM users WHERE user_name_lower LIKE 'adm%' " +
+                "UNION SELECT id FROM users WHERE email_lower LIKE 'adm%'");
+        assertTrue(plan.contains("IX_USERS_USER_NAME_LOWER"), plan);
+        assertTrue(plan.contains("IX_USERS_EMAIL_LOWER"), plan);
+    }
+
+    /**
+     * Поиск пользователей вне проекта проверяет членство подзапросом NOT EXISTS поиском по обоим столбцам
+     * составного индекса связей (а не просмотром всех участников проекта)
+     * и читает пользователей по первичному ключу после курсора.
+     */
+    @Test
+    void usersNotInProjectUsesAntiJoinIndex() {
+        String plan = explain("SELECT u.id FROM users u WHERE u.id > 0 AND NOT EXISTS " +
+                "(SELECT 1 FROM users_project up WHERE up.project_id = 1 AND up.user_id = u.id) ORDER BY u.id LIMIT 51");
+        assertTrue(Pattern.compile("(UX_USERS_PROJECT_USER_PROJECT|IX_USERS_PROJECT_PROJECT_USER): "
+                + "PROJECT_ID = CAST\\(1 AS BIGINT\\)\\s+AND USER_ID = U\\.ID").matcher(plan).find(), plan);
+        assertTrue(plan.contains("PRIMARY_KEY"), plan);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.SpringAppGB.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверка потребления памяти потоковой выгрузкой на синтетическом наборе из миллиона пользователей.
+ * Тест использует отдельную базу H2 с ленивым выполнением запросов, чтобы результат не буферизовался
+ * на стороне базы, и во время выгрузки измеряет занятую кучу после сборки мусора.
+ *
+ * Тест долгий, поэтому запускается только явно: mvn test -Dexport.memory_test=true -Dtest=ExportServiceMemoryTest
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:exportdb;LAZY_QUERY_EXECUTION=1")
+@DirtiesContext
+@EnabledIfSystemProperty(named = "export.memory_test", matches = "true")
+public class ExportServiceMemoryTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final int SAMPLE_EVERY_ROWS = 100_000;
+    private static final long MAX_HEAP_GROWTH_BYTES = 64L * 1024 * 1024;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Заполняет таблицу пользователей синтетическими записями одним запросом на стороне базы.
+     */
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("INSERT INTO users (user_name, password, email, role) " +
+                "SELECT 'export_user_' || X, 'password', 'export_user_' || X || '@example.com', 'ROLE_USER' " +
+                "FROM SYSTEM_RANGE(1, " + ROWS + ")");
+    }
+
+    /**
+     * Проверяет, что все записи выгружены, а занятая куча во время выгрузки
+     * не растет пропорционально количеству записей.
+     */
+    @Test
+    void exportUsersKeepsHeapFlat() {
+        long baseline = usedHeapAfterGc();
+        HeapSamplingOutputStream out = new HeapSamplingOutputStream();
+
+        long exported = exportService.writeUsers(out);
+
+        assertTrue(exported >= ROWS, "Exported " + exported + " rows");
+        assertEquals(exported, out.lines);
+        long growth = out.maxUsedHeap - baseline;
+        assertTrue(growth < MAX_HEAP_GROWTH_BYTES,
+                "Heap grew by " + growth / (1024 * 1024) + " MB during export of " + exported + " rows");
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Выходной поток, который отбрасывает данные, считает строки и периодически измеряет занятую кучу.
+     */
+    private static class HeapSamplingOutputStream extends OutputStream {
+
+        private long lines;
+        private long maxUsedHeap;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n' && ++lines % SAMPLE_EVERY_ROWS == 0) {
+                maxUsedHeap = Math.max(maxUsedHeap, usedHeapAfterGc());
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
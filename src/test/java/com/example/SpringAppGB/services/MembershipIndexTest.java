@@ -0,0 +1,64 @@
+package com.example.SpringAppGB.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверка того, что изменения индекса связей видны только после фиксации транзакции.
+ * Иначе параллельная транзакция увидела бы незафиксированную связь, которая затем может быть откачена.
+ * Используются идентификаторы, которых нет в миграциях, чтобы не затрагивать связи из базы.
+ */
+@SpringBootTest
+public class MembershipIndexTest {
+
+    private static final Long PROJECT_ID = 1_000_000L;
+    private static final Long USER_ID = 2_000_000L;
+
+    @Autowired
+    private MembershipIndex membershipIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        membershipIndex.removeProject(PROJECT_ID);
+    }
+
+    /**
+     * Проверяет, что добавленная связь появляется в индексе только после фиксации.
+     */
+    @Test
+    void addIsAppliedAfterCommit() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            membershipIndex.add(PROJECT_ID, List.of(USER_ID));
+            assertFalse(membershipIndex.isMember(USER_ID, PROJECT_ID));
+        });
+
+        assertTrue(membershipIndex.isMember(USER_ID, PROJECT_ID));
+    }
+
+    /**
+     * Проверяет, что изменения откаченной транзакции в индекс не попадают.
+     */
+    @Test
+    void changesAreDiscardedOnRollback() {
+        membershipIndex.add(PROJECT_ID, List.of(USER_ID));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            membershipIndex.remove(PROJECT_ID, List.of(USER_ID));
+            membershipIndex.add(PROJECT_ID, List.of(USER_ID + 1));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(List.of(USER_ID), membershipIndex.getMemberIds(PROJECT_ID));
+    }
+}
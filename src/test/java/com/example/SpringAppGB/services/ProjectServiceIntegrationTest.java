@@ -1,11 +1,14 @@
 package com.example.SpringAppGB.services;
 
 
+import com.example.SpringAppGB.config.CacheConfig;
+import com.example.SpringAppGB.model.DTO.ProjectSummary;
 import com.example.SpringAppGB.model.Project;
 import com.example.SpringAppGB.repository.interfaces.ProjectRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
@@ -39,6 +42,13 @@ public class ProjectServiceIntegrationTest {
     private ProjectService projectService;
 
 
+    /**
+     * Менеджер кэшей приложения для проверки содержимого кэша проектов.
+     */
+    @Autowired
+    private CacheManager cacheManager;
+
+
     /**
      * Вспомогательный метод для создания тестового проекта.
      *
@@ -152,13 +162,11 @@ public class ProjectServiceIntegrationTest {
      * Тест для проверки поиска проектов по имени или описанию.
      * Проверяет, что метод findProjectByNameOrDescription корректно
      * находит проекты, содержащие заданную строку в имени или описании.
+     * Индекс поиска обновляется после фиксации транзакции, поэтому проекты добавляются без общей
+     * транзакции теста и удаляются после проверки.
      */
     @Test
-    @Transactional
     void findProjectByNameOrDescriptionIntegrationTest() {
-        // Удаляем все проекты перед тестом, чтобы тест был независим от других данных
-        projectRepository.deleteAll();
-
         // Создаем новый проект для добавления
         Project projectToAdd = createTestProject("Test project to find test",
                 "Description to find test project");
@@ -169,16 +177,21 @@ public class ProjectServiceIntegrationTest {
         projectService.addProject(projectToAdd);
         projectService.addProject(projectToAdd2);
 
-       // Вызываем метод поиска проекта по имени или описанию
-        List<Project> findProject = projectService.findProjectByNameOrDescription("find test");
-
-        // Выполняем проверки, что проекты найдены и что в их полях есть искомое выражение
-        assertEquals(2, findProject.size());
-
-        for (Project project : findProject) {
-            boolean containsInName = project.getName().contains("find test");
-            boolean containsInDescription = project.getDescription().contains("find test");
-            assertTrue(containsInName || containsInDescription, "find test");
+        try {
+            // Вызываем метод поиска проекта по имени или описанию
+            List<Project> findProject = projectService.findProjectByNameOrDescription("find test");
+
+            // Выполняем проверки, что проекты найдены и что в их полях есть искомое выражение
+            assertEquals(2, findProject.size());
+
+            for (Project project : findProject) {
+                boolean containsInName = project.getName().contains("find test");
+                boolean containsInDescription = project.getDescription().contains("find test");
+                assertTrue(containsInName || containsInDescription, "find test");
+            }
+        } finally {
+            projectService.deleteProjectById(projectToAdd.getId());
+            projectService.deleteProjectById(projectToAdd2.getId());
         }
     }
 
@@ -196,7 +209,7 @@ public class ProjectServiceIntegrationTest {
         Project updatedProject = createTestProject("Test Updated", "Test Description");
 
         // Вызываем метод updateProjectById сервиса для обновления существующего проекта
-        projectService.updateProjectById(projectId, updatedProject);
+        projectService.updateProjectById(projectId, updatedProject, null);
 
         // Считываем обновленный проект и проверяем, что данные обновились
         Project resultProject = projectRepository.findById(projectId).orElseThrow();
@@ -225,4 +238,19 @@ public class ProjectServiceIntegrationTest {
         Project resultProject = projectRepository.findById(projectId).orElse(null);
         assertNull(resultProject, "Проект не был удален");
     }
+
+
+    /**
+     * Тест для проверки кэша проектов.
+     * Проверяет, что в общем кэше хранятся неизменяемые краткие данные проекта, а не сущность JPA.
+     * Данные берутся из миграции V2: проект 1 существует.
+     */
+    @Test
+    void projectSummaryIsCachedInsteadOfEntity() {
+        ProjectSummary first = projectService.getProjectSummaryById(1L);
+        ProjectSummary second = projectService.getProjectSummaryById(1L);
+
+        assertSame(first, second);
+        assertInstanceOf(ProjectSummary.class, cacheManager.getCache(CacheConfig.PROJECTS).get(1L).get());
+    }
 }
@@ -32,6 +32,24 @@ public class ProjectServiceUnitTest {
     @Mock
     private ProjectRepository projectRepository;
 
+    /**
+     * Мок объект индекса поиска проектов, который обновляется сервисом при изменении проекта.
+     */
+    @Mock
+    private ProjectSearchIndex projectSearchIndex;
+
+    /**
+     * Мок объект индекса связей пользователей и проектов, который обновляется сервисом при удалении проекта.
+     */
+    @Mock
+    private MembershipIndex membershipIndex;
+
+    /**
+     * Мок объект счетчиков изменений, которые сервис увеличивает при изменении проекта.
+     */
+    @Mock
+    private ChangeCounters changeCounters;
+
 
     /**
      * Инжектированный сервис ProjectService для тестирования.
@@ -65,7 +83,7 @@ public class ProjectServiceUnitTest {
         given(projectRepository.findById(projectId)).willReturn(Optional.of(existingProject));
 
         // Вызываем метод updateProjectById у сервиса, передав в него projectId и updatedProject
-        projectService.updateProjectById(projectId, updatedProject);
+        projectService.updateProjectById(projectId, updatedProject, null);
 
         // Проверяем, что поля existingProject обновляются с данными из updatedProject
         assertEquals("Test Updated", existingProject.getName());
@@ -75,10 +93,7 @@ public class ProjectServiceUnitTest {
         // Проверяем, что репозиторий был вызвалн с правильными параметрами
         verify(projectRepository).findById(projectId);
 
-        // Проверка вызова метода updateProjectById
-        verify(projectRepository).updateProjectById(projectId, existingProject);
-
-        // Проверка вызова метода flush
-        verify(projectRepository).flush();
+        // Проверка сохранения проекта с немедленной записью в базу (с проверкой версии)
+        verify(projectRepository).saveAndFlush(existingProject);
     }
 }
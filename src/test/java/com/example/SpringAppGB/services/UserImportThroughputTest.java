@@ -0,0 +1,76 @@
+package com.example.SpringAppGB.services;
+
+import com.example.SpringAppGB.model.DTO.ImportStatus;
+import com.example.SpringAppGB.model.Roles;
+import com.example.SpringAppGB.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Сравнение скорости массового импорта пользователей с добавлением тех же пользователей по одному.
+ * Импорт хеширует пароли параллельно и вставляет пользователей пакетами,
+ * поэтому должен выполняться быстрее последовательных вызовов {@link UserService#addUser(User)}.
+ *
+ * Тест долгий, поэтому запускается только явно: mvn test -Dimport.benchmark=true -Dtest=UserImportThroughputTest
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:importdb")
+@DirtiesContext
+@EnabledIfSystemProperty(named = "import.benchmark", matches = "true")
+public class UserImportThroughputTest {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportThroughputTest.class);
+
+    private static final int USERS = 500;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * Импортирует и добавляет по одному одинаковое количество пользователей и сравнивает длительность.
+     */
+    @Test
+    void bulkImportIsFasterThanSingleInserts() {
+        long start = System.nanoTime();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setUserName("single_user_" + i);
+            user.setPassword("password" + i);
+            user.setEmail("single_user_" + i + "@example.com");
+            user.setRole(Roles.ROLE_USER);
+            userService.addUser(user);
+        }
+        long singleNanos = System.nanoTime() - start;
+
+        StringBuilder csv = new StringBuilder("userName,password,email,role\n");
+        for (int i = 0; i < USERS; i++) {
+            csv.append("import_user_").append(i).append(",password").append(i)
+                    .append(",import_user_").append(i).append("@example.com,ROLE_USER\n");
+        }
+        start = System.nanoTime();
+        Map<ImportStatus, Long> totals = userImportService.importUsers(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+                UserImportService.Format.CSV, OutputStream.nullOutputStream());
+        long importNanos = System.nanoTime() - start;
+
+        assertEquals(Map.of(ImportStatus.CREATED, (long) USERS), totals);
+        log.info("{} users: single inserts {} ms, bulk import {} ms",
+                USERS, singleNanos / 1_000_000, importNanos / 1_000_000);
+        assertTrue(importNanos < singleNanos,
+                "Bulk import took " + importNanos / 1_000_000 + " ms, single inserts " + singleNanos / 1_000_000 + " ms");
+    }
+}
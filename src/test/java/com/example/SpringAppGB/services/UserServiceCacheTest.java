@@ -0,0 +1,74 @@
+package com.example.SpringAppGB.services;
+
+import com.example.SpringAppGB.config.CacheConfig;
+import com.example.SpringAppGB.model.DTO.UserSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверка кэшей пользователей.
+ * В общих кэшах должны храниться неизменяемые краткие данные, а не сущности JPA:
+ * сущность вне сессии не загружает ленивые связи, а ее общий экземпляр можно изменить.
+ * Кэш данных для аутентификации очищается только после фиксации изменения пользователя.
+ * Данные берутся из миграции V2: пользователь admin имеет идентификатор 1.
+ */
+@SpringBootTest
+public class UserServiceCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Проверяет, что повторный запрос по идентификатору отдается из кэша и в кэше лежат краткие данные.
+     */
+    @Test
+    void userByIdCachesSummary() {
+        UserSummary first = userService.getUserSummaryById(1L);
+        UserSummary second = userService.getUserSummaryById(1L);
+
+        assertEquals("admin", first.userName());
+        assertSame(first, second);
+        assertInstanceOf(UserSummary.class, cacheManager.getCache(CacheConfig.USERS).get(1L).get());
+    }
+
+    /**
+     * Проверяет, что по имени пользователя в кэш попадают те же краткие данные.
+     */
+    @Test
+    void userByNameCachesSummary() {
+        UserSummary summary = userService.getUserSummaryByUserName("admin");
+
+        assertEquals(1L, summary.id());
+        assertInstanceOf(UserSummary.class, cacheManager.getCache(CacheConfig.USERS_BY_NAME).get("admin").get());
+    }
+
+    /**
+     * Проверяет, что внутри транзакции данные для аутентификации удаляются из кэша только после фиксации.
+     */
+    @Test
+    void userDetailsAreEvictedAfterCommit() {
+        userDetailsCache.putUserInCache(userService.loadUserByUsername("admin"));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userDetailsCache.removeUserFromCache("admin");
+            assertNotNull(userDetailsCache.getUserFromCache("admin"));
+        });
+
+        assertNull(userDetailsCache.getUserFromCache("admin"));
+    }
+}